@@ -0,0 +1,204 @@
+package IDF;
+
+import ProjectOptimization.GeneKeyEncoder;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Immutable in-memory index of an energy simulation results file. Each line
+ * of the file has the format <gene sequence> : <electricity value>. The file
+ * is parsed once and shared by all callers using the same file; it is parsed
+ * again only if the file has been modified since.
+ *
+ * Results can also be looked up by the mixed-radix keys of a GeneKeyEncoder.
+ * The keyed table of an encoder is built on first use: a dense array indexed
+ * by key if the key space is small or well filled, sorted key and value
+ * arrays searched by binary search otherwise.
+ */
+public class EnergyResultIndex
+{
+
+    private static final Map<File, EnergyResultIndex> indices = new HashMap<File, EnergyResultIndex>();
+
+    // largest key space stored as dense array (32 MB)
+    private static final long MAX_DENSE_KEY_SPACE = 1 << 22;
+    // key spaces up to this size are always dense, larger ones only if filled well
+    private static final long MIN_DENSE_KEY_SPACE = 1 << 16;
+
+    private final Map<String, Double> electricity;
+    private final Map<GeneKeyEncoder, KeyedResults> keyedResults = new IdentityHashMap<GeneKeyEncoder, KeyedResults>();
+    private final long lastModified;
+    private final long length;
+
+    /**
+     * Returns the index of the given results file.
+     *
+     * @param results energy simulation results file
+     * @return shared index of the file
+     * @throws IOException if the file cannot be read
+     */
+    public static EnergyResultIndex forFile(File results) throws IOException
+    {
+        if (results == null)
+            throw new IllegalArgumentException("'results' must not be null.");
+
+        File key = results.getAbsoluteFile();
+        synchronized (indices)
+        {
+            EnergyResultIndex index = indices.get(key);
+            if (index == null || index.lastModified != key.lastModified() || index.length != key.length())
+            {
+                index = new EnergyResultIndex(key);
+                indices.put(key, index);
+            }
+            return index;
+        }
+    }
+
+    private EnergyResultIndex(File results) throws IOException
+    {
+        lastModified = results.lastModified();
+        length = results.length();
+        electricity = new HashMap<String, Double>();
+
+        BufferedReader reader = new BufferedReader(new FileReader(results));
+        try
+        {
+            String line;
+            while ((line = reader.readLine()) != null)
+            {
+                int separator = line.indexOf(':');
+                if (separator < 0)
+                    continue;
+
+                String geneSequence = line.substring(0, separator).trim();
+                // the first entry of a gene sequence wins, as in a linear scan
+                if (electricity.containsKey(geneSequence))
+                    continue;
+                try
+                {
+                    electricity.put(geneSequence, Double.parseDouble(line.substring(separator + 1).trim()));
+                }
+                catch (NumberFormatException e)
+                {
+                    // skip malformed entries
+                }
+            }
+        }
+        finally
+        {
+            reader.close();
+        }
+    }
+
+    /**
+     * Returns the simulated electricity of a gene sequence.
+     *
+     * @param geneSequence gene sequence
+     * @return electricity, <code>Double.NaN</code> if there is no result for
+     * the gene sequence
+     */
+    public double getElectricity(String geneSequence)
+    {
+        Double result = electricity.get(geneSequence);
+        return result == null ? Double.NaN : result;
+    }
+
+    /**
+     * Returns the simulated electricity of a gene sequence given by its key.
+     *
+     * @param encoder encoder of the key
+     * @param key key of the gene sequence
+     * @return electricity, <code>Double.NaN</code> if there is no result for
+     * the gene sequence
+     */
+    public double getElectricity(GeneKeyEncoder encoder, long key)
+    {
+        KeyedResults results;
+        synchronized (keyedResults)
+        {
+            results = keyedResults.get(encoder);
+            if (results == null)
+            {
+                results = new KeyedResults(encoder, electricity);
+                keyedResults.put(encoder, results);
+            }
+        }
+        return results.get(key);
+    }
+
+    public boolean contains(String geneSequence)
+    {
+        return electricity.containsKey(geneSequence);
+    }
+
+    public int size()
+    {
+        return electricity.size();
+    }
+
+    /**
+     * Results of one encoder, keyed by the encoded gene sequences.
+     */
+    private static class KeyedResults
+    {
+
+        private final double[] dense;
+        private final long[] keys;
+        private final double[] values;
+
+        KeyedResults(GeneKeyEncoder encoder, Map<String, Double> electricity)
+        {
+            long keySpace = encoder.getKeySpace();
+            if (keySpace <= MAX_DENSE_KEY_SPACE
+                    && (keySpace <= MIN_DENSE_KEY_SPACE || keySpace <= 8L * electricity.size()))
+            {
+                dense = new double[(int) keySpace];
+                Arrays.fill(dense, Double.NaN);
+                for (Map.Entry<String, Double> entry : electricity.entrySet())
+                {
+                    long key = encoder.parse(entry.getKey());
+                    if (key >= 0)
+                        dense[(int) key] = entry.getValue();
+                }
+                keys = null;
+                values = null;
+                return;
+            }
+
+            dense = null;
+            long[] parsed = new long[electricity.size()];
+            int count = 0;
+            for (String geneSequence : electricity.keySet())
+            {
+                long key = encoder.parse(geneSequence);
+                if (key >= 0)
+                    parsed[count++] = key;
+            }
+            keys = Arrays.copyOf(parsed, count);
+            Arrays.sort(keys);
+            values = new double[count];
+            for (Map.Entry<String, Double> entry : electricity.entrySet())
+            {
+                long key = encoder.parse(entry.getKey());
+                if (key >= 0)
+                    values[Arrays.binarySearch(keys, key)] = entry.getValue();
+            }
+        }
+
+        double get(long key)
+        {
+            if (dense != null)
+                return key >= 0 && key < dense.length ? dense[(int) key] : Double.NaN;
+
+            int index = Arrays.binarySearch(keys, key);
+            return index >= 0 ? values[index] : Double.NaN;
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package IDF;
+
+import NSGAII.Individual;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only binary store of energy simulation results, memory mapped and
+ * searched in place, so opening it is instant and the data lives off-heap.
+ *
+ * File layout (big endian):
+ * <pre>
+ * int    MAGIC
+ * int    key width w (bytes)
+ * int    number of entries n
+ * n * w  gene sequences, ISO-8859-1, zero padded, sorted by unsigned bytes
+ * n * 8  electricity values (double), in key order
+ * </pre>
+ *
+ * Stores are created from text result files (<gene sequence> : <electricity
+ * value>) by {@link #convert(File, File)} and must use the {@link #EXTENSION}
+ * file extension, so EnergySimParametricOptionReader picks them up
+ * transparently. The mapped size is limited to 2 GB.
+ */
+public class EnergyResultStore implements SimulationReader
+{
+
+    public static final String EXTENSION = ".ers";
+    private static final int MAGIC = 0x45525331; // "ERS1"
+    private static final int HEADER_SIZE = 12;
+
+    private static final Map<File, EnergyResultStore> stores = new HashMap<File, EnergyResultStore>();
+
+    private final MappedByteBuffer buffer;
+    private final int keyWidth;
+    private final int size;
+    private final int valuesOffset;
+    private final long lastModified;
+
+    /**
+     * Returns true if the file is a binary store (by its file extension).
+     */
+    public static boolean isStore(File file)
+    {
+        return file != null && file.getName().endsWith(EXTENSION);
+    }
+
+    /**
+     * Returns the mapped store of the given file. Stores are shared by all
+     * callers using the same file.
+     *
+     * @throws IOException if the file cannot be mapped or is not a store
+     */
+    public static EnergyResultStore forFile(File file) throws IOException
+    {
+        if (file == null)
+            throw new IllegalArgumentException("'file' must not be null.");
+
+        File key = file.getAbsoluteFile();
+        synchronized (stores)
+        {
+            EnergyResultStore store = stores.get(key);
+            if (store == null || store.lastModified != key.lastModified())
+            {
+                store = new EnergyResultStore(key);
+                stores.put(key, store);
+            }
+            return store;
+        }
+    }
+
+    private EnergyResultStore(File file) throws IOException
+    {
+        lastModified = file.lastModified();
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try
+        {
+            FileChannel channel = raf.getChannel();
+            if (channel.size() > Integer.MAX_VALUE)
+                throw new IOException(file + " is too large to be mapped.");
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        finally
+        {
+            // the mapping stays valid after the channel is closed
+            raf.close();
+        }
+
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC)
+            throw new IOException(file + " is not an energy result store.");
+        keyWidth = buffer.getInt(4);
+        size = buffer.getInt(8);
+        // in long, a corrupt header must not overflow before the size check
+        long offset = HEADER_SIZE + (long) keyWidth * size;
+        if (keyWidth < 0 || size < 0 || offset + 8L * size != buffer.capacity())
+            throw new IOException(file + " is corrupt.");
+        valuesOffset = (int) offset;
+    }
+
+    /**
+     * Number of stored gene sequences.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns the simulated electricity of a gene sequence.
+     *
+     * @return electricity, Double.NaN if there is no result for the gene
+     * sequence
+     */
+    public double findElectricity(String geneSequence)
+    {
+        if (geneSequence.length() > keyWidth)
+            return Double.NaN;
+
+        int low = 0;
+        int high = size - 1;
+        while (low <= high)
+        {
+            int middle = (low + high) >>> 1;
+            int cmp = compare(middle, geneSequence);
+            if (cmp < 0)
+                low = middle + 1;
+            else if (cmp > 0)
+                high = middle - 1;
+            else
+                return buffer.getDouble(valuesOffset + 8 * middle);
+        }
+        return Double.NaN;
+    }
+
+    // compares the stored key of an entry with a gene sequence
+    private int compare(int entry, String geneSequence)
+    {
+        int offset = HEADER_SIZE + entry * keyWidth;
+        int length = geneSequence.length();
+        for (int i = 0; i < keyWidth; i++)
+        {
+            int stored = buffer.get(offset + i) & 0xFF;
+            int wanted = i < length ? geneSequence.charAt(i) : 0;
+            if (stored != wanted)
+                return stored < wanted ? -1 : 1;
+        }
+        return 0;
+    }
+
+    @Override
+    public double getSimulationElectricity(Individual indv, String geneSequence)
+    {
+        double res = findElectricity(geneSequence);
+        if (Double.isNaN(res))
+            throw new NoEnergyResultFoundException(String.format("Failed to find %s results", geneSequence));
+
+        return res;
+    }
+
+    /**
+     * Converts a text results file into a binary store. If a gene sequence
+     * occurs more than once, its first value is kept.
+     *
+     * @param text text results file
+     * @param binary binary store to write
+     * @return number of stored gene sequences
+     */
+    public static int convert(File text, File binary) throws IOException
+    {
+        Map<String, Double> values = new HashMap<String, Double>();
+        List<byte[]> keys = new ArrayList<byte[]>();
+        int keyWidth = 0;
+
+        BufferedReader reader = new BufferedReader(new FileReader(text));
+        try
+        {
+            String line;
+            while ((line = reader.readLine()) != null)
+            {
+                int separator = line.indexOf(':');
+                if (separator < 0)
+                    continue;
+
+                String geneSequence = line.substring(0, separator).trim();
+                if (geneSequence.isEmpty() || values.containsKey(geneSequence))
+                    continue;
+                double value;
+                try
+                {
+                    value = Double.parseDouble(line.substring(separator + 1).trim());
+                }
+                catch (NumberFormatException e)
+                {
+                    continue;
+                }
+
+                byte[] key = new byte[geneSequence.length()];
+                for (int i = 0; i < key.length; i++)
+                {
+                    char c = geneSequence.charAt(i);
+                    if (c == 0 || c > 0xFF)
+                        throw new IOException("Unsupported character in gene sequence " + geneSequence);
+                    key[i] = (byte) c;
+                }
+                values.put(geneSequence, value);
+                keys.add(key);
+                keyWidth = Math.max(keyWidth, key.length);
+            }
+        }
+        finally
+        {
+            reader.close();
+        }
+
+        Collections.sort(keys, new Comparator<byte[]>()
+        {
+            @Override
+            public int compare(byte[] a, byte[] b)
+            {
+                int length = Math.min(a.length, b.length);
+                for (int i = 0; i < length; i++)
+                {
+                    int cmp = (a[i] & 0xFF) - (b[i] & 0xFF);
+                    if (cmp != 0)
+                        return cmp;
+                }
+                return a.length - b.length;
+            }
+        });
+
+        if (HEADER_SIZE + (long) keys.size() * (keyWidth + 8) > Integer.MAX_VALUE)
+            throw new IOException(text + " has too many results for a single store.");
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(binary)));
+        try
+        {
+            out.writeInt(MAGIC);
+            out.writeInt(keyWidth);
+            out.writeInt(keys.size());
+            byte[] padding = new byte[keyWidth];
+            for (byte[] key : keys)
+            {
+                out.write(key);
+                out.write(padding, 0, keyWidth - key.length);
+            }
+            for (byte[] key : keys)
+                out.writeDouble(values.get(new String(key, "ISO-8859-1")));
+        }
+        finally
+        {
+            out.close();
+        }
+        return keys.size();
+    }
+
+    /**
+     * Converts a text results file into a binary store.
+     *
+     * Usage: EnergyResultStore <text results file> <binary store file>
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length != 2)
+        {
+            System.out.println("Usage: EnergyResultStore <text results file> <binary store file>");
+            return;
+        }
+        File binary = new File(args[1]);
+        if (!isStore(binary))
+            System.out.printf("Warning: %s does not end with %s and will not be recognized as store.\n", binary, EXTENSION);
+        int count = convert(new File(args[0]), binary);
+        System.out.printf("Stored %d results in %s\n", count, binary);
+    }
+}
@@ -1,13 +1,12 @@
 package IDF;
 
 import NSGAII.Individual;
+import ProjectOptimization.GeneKeyEncoder;
 import ProjectOptimization.IndividualProject;
-import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Scanner;
 import java.util.TreeMap;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -24,40 +23,66 @@ public class EnergySimParametricOptionReader extends ParametricOptionReader impl
     @Override
     public double getSimulationElectricity(Individual indv, String geneSequence)
     {
-        double res = -1;
-        boolean found = false;
+        double res = findSimulationElectricity(indv, geneSequence);
+        if (Double.isNaN(res))
+            throw new NoEnergyResultFoundException(String.format("Failed to find %s results", geneSequence));
+
+        return res;
+    }
+
+    /**
+     * Looks up the simulated electricity of a gene sequence in the
+     * individual's energy results file. Binary stores are searched in place,
+     * text files through their shared in-memory index; both are held by the
+     * individual.
+     *
+     * @return electricity, -1 if the results file cannot be read and
+     * Double.NaN if there is no result for the gene sequence
+     */
+    public double findSimulationElectricity(Individual indv, String geneSequence)
+    {
         if (!(indv instanceof IndividualProject))
             throw new IllegalArgumentException("Must be an IndividualProject.");
         IndividualProject proj = (IndividualProject) indv;
-        File eRes = proj.getEnergyResults();
-        Scanner scan = null;
         try
         {
-            scan = new Scanner(eRes);
-            while (scan.hasNextLine())
-            {
-                // Entry format <gene sequence> : <electricity value>
-                String[] line = scan.nextLine().split(":");
-                if (line[0].trim().equals(geneSequence))
-                {
-                    res = Double.parseDouble(line[1].trim());
-                    found = true;
-                    break;
-                }
-            }
+            if (EnergyResultStore.isStore(proj.getEnergyResults()))
+                return proj.getEnergyResultStore().findElectricity(geneSequence);
+            return proj.getEnergyResultIndex().getElectricity(geneSequence);
         }
         catch (IOException e)
         {
             return -1;
         }
-        finally
+    }
+
+    /**
+     * Looks up the simulated electricity of the individual's current
+     * parametric configuration. Text results are looked up by the
+     * individual's mixed-radix gene key if it can be encoded, everything else
+     * by its gene sequence string.
+     *
+     * @return electricity, -1 if the results file cannot be read and
+     * Double.NaN if there is no result for the individual
+     */
+    public double findSimulationElectricity(IndividualProject proj)
+    {
+        GeneKeyEncoder encoder = proj.getGeneKeyEncoder();
+        if (encoder != null && !EnergyResultStore.isStore(proj.getEnergyResults()))
         {
-            if (scan != null)
-                scan.close();
+            long key = proj.getGeneKey();
+            if (key >= 0)
+            {
+                try
+                {
+                    return proj.getEnergyResultIndex().getElectricity(encoder, key);
+                }
+                catch (IOException e)
+                {
+                    return -1;
+                }
+            }
         }
-        if (!found)
-            throw new NoEnergyResultFoundException(String.format("Failed to find %s results", geneSequence));
-        
-        return res;
+        return findSimulationElectricity(proj, proj.buildGeneSequence().toString());
     }
 }
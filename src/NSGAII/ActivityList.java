@@ -5,8 +5,8 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.util.ArrayList;
 import java.util.Map;
-import java.util.Random;
 import java.util.Scanner;
+import java.util.SplittableRandom;
 import java.util.TreeMap;
 
 /**
@@ -21,10 +21,21 @@ import java.util.TreeMap;
 public class ActivityList
 {
     private TreeMap<String, ArrayList<Activity>> altsByName;
+    private SplittableRandom random;
 
     public ActivityList()
     {
         altsByName = new TreeMap();
+        random = new SplittableRandom();
+    }
+
+    /*
+     * Set the random number stream used to choose random alternatives, e.g.
+     * a seeded one for reproducible schedules.
+     */
+    public void setRandom(SplittableRandom random)
+    {
+        this.random = random;
     }
 
     public TreeMap<String, ArrayList<Activity>> getAltsByName()
@@ -60,9 +71,8 @@ public class ActivityList
      */
     public Activity getRandomActivity(String id)
     {
-        Random rand = new Random();
         ArrayList<Activity> list = altsByName.get(id);
-        return list.get(rand.nextInt(list.size()));
+        return list.get(random.nextInt(list.size()));
     }
 
     /*
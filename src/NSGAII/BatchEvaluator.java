@@ -0,0 +1,16 @@
+package NSGAII;
+
+/**
+ * Evaluates the offspring of a generation as one batch, e.g. on several threads
+ * ({@link ParallelEvaluator}) or on remote workers ({@link RemoteEvaluator}).
+ */
+public interface BatchEvaluator
+{
+
+    /**
+     * Evaluates all specified individuals and returns when all evaluations have finished.
+     *
+     * @param individuals individuals to evaluate
+     */
+    void evaluate(Individual[] individuals);
+}
@@ -0,0 +1,91 @@
+package NSGAII;
+
+/**
+ * Non-dominated sort for exactly two objectives in O(N log N). The points are swept in
+ * lexicographic order; every point is dominated by a front if and only if the smallest second
+ * objective value of the front is not larger than its own, so its front is found by a binary
+ * search over the smallest second objective values of the fronts, which increase with the rank.
+ */
+public class BiObjectiveNonDominatedSorter implements NonDominatedSorter
+{
+
+    @Override
+    public int sort(double[] objectives, int numberOfPoints, int numberOfObjectives, int[] ranks)
+    {
+        SorterSupport.checkArguments(objectives, numberOfPoints, numberOfObjectives, ranks);
+        if (numberOfObjectives != 2)
+        {
+            throw new IllegalArgumentException("Only points with two objectives can be sorted.");
+        }
+
+        if (numberOfPoints == 0)
+        {
+            return 0;
+        }
+
+        // points with 'NaN' are dominated by all other points and are ranked last
+        boolean[] hasNaN = SorterSupport.findNaNs(objectives, numberOfPoints, 2);
+        int[] order = new int[numberOfPoints];
+        int numberOfValidPoints = 0;
+        for (int i = 0; i < numberOfPoints; i++)
+        {
+            if (!hasNaN[i])
+            {
+                order[numberOfValidPoints++] = i;
+            }
+        }
+
+        SorterSupport.sortLexicographically(objectives, 2, order, numberOfValidPoints);
+
+        // smallest second objective value of every front so far
+        double[] frontMinimum = new double[numberOfValidPoints];
+        int numberOfFronts = 0;
+        for (int i = 0; i < numberOfValidPoints; i++)
+        {
+            int p = order[i];
+            if (i > 0 && objectives[2 * p] == objectives[2 * order[i - 1]]
+                    && objectives[2 * p + 1] == objectives[2 * order[i - 1] + 1])
+            {
+                // equal points share the same rank
+                ranks[p] = ranks[order[i - 1]];
+                continue;
+            }
+
+            double value = objectives[2 * p + 1];
+            int low = 0;
+            int high = numberOfFronts;
+            while (low < high)
+            {
+                int middle = (low + high) >>> 1;
+                if (frontMinimum[middle] <= value)
+                {
+                    low = middle + 1;
+                }
+                else
+                {
+                    high = middle;
+                }
+            }
+            frontMinimum[low] = value;
+            if (low == numberOfFronts)
+            {
+                numberOfFronts++;
+            }
+            ranks[p] = low + 1;
+        }
+
+        if (numberOfValidPoints < numberOfPoints)
+        {
+            numberOfFronts++;
+            for (int i = 0; i < numberOfPoints; i++)
+            {
+                if (hasNaN[i])
+                {
+                    ranks[i] = numberOfFronts;
+                }
+            }
+        }
+
+        return numberOfFronts;
+    }
+}
@@ -0,0 +1,90 @@
+package NSGAII;
+
+import java.util.SplittableRandom;
+
+/**
+ * Binary tournament selection of the original NSGA-II with the crowded comparison operator. The
+ * contestants are drawn from two random permutations of the population, so every member takes
+ * part in two tournaments per population size parents; a permutation is shuffled again when it is
+ * used up.
+ */
+public class BinaryTournamentSelection implements SelectionStrategy
+{
+
+    @Override
+    public int[] select(int[] ranks, double[] crowdingDistances, int size, int numberOfParents,
+            SplittableRandom random)
+    {
+        if (size < 1)
+        {
+            throw new IllegalArgumentException("'size' must be a positive number.");
+        }
+        if (numberOfParents < 0)
+        {
+            throw new IllegalArgumentException("'numberOfParents' must not be negative.");
+        }
+
+        int[] parents = new int[numberOfParents];
+        if (size == 1)
+        {
+            return parents;
+        }
+
+        int[] a1 = new int[size];
+        int[] a2 = new int[size];
+        for (int i = 0; i < size; i++)
+        {
+            a1[i] = i;
+            a2[i] = i;
+        }
+        for (int i = 0; i < size; i++)
+        {
+            swap(a1, i, random.nextInt(i, size));
+            swap(a2, i, random.nextInt(i, size));
+        }
+
+        // parents 4k and 4k + 1 come from the first, 4k + 2 and 4k + 3 from the second permutation
+        int next1 = 0;
+        int next2 = 0;
+        for (int i = 0; i < numberOfParents; i++)
+        {
+            if ((i & 2) == 0)
+            {
+                if (next1 + 2 > size)
+                {
+                    shuffle(a1, random);
+                    next1 = 0;
+                }
+                parents[i] = NSGA2.binaryTournament(random, ranks, crowdingDistances, a1[next1], a1[next1 + 1]);
+                next1 += 2;
+            }
+            else
+            {
+                if (next2 + 2 > size)
+                {
+                    shuffle(a2, random);
+                    next2 = 0;
+                }
+                parents[i] = NSGA2.binaryTournament(random, ranks, crowdingDistances, a2[next2], a2[next2 + 1]);
+                next2 += 2;
+            }
+        }
+
+        return parents;
+    }
+
+    private static void shuffle(int[] permutation, SplittableRandom random)
+    {
+        for (int i = 0; i < permutation.length; i++)
+        {
+            swap(permutation, i, random.nextInt(i, permutation.length));
+        }
+    }
+
+    private static void swap(int[] array, int i, int j)
+    {
+        int temp = array[i];
+        array[i] = array[j];
+        array[j] = temp;
+    }
+}
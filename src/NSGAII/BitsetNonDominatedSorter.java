@@ -0,0 +1,234 @@
+package NSGAII;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Non-dominated sort based on a dominance matrix stored as bitsets. Row q of the matrix holds one
+ * bit per point which is set if the point dominates q; the rows are filled by a tight loop over
+ * the primitive objective matrix with the 'NaN' flags computed once per point. The fronts are
+ * then peeled off with bit operations only: a remaining point belongs to the current front if its
+ * row has no bit in common with the remaining points.
+ *
+ * The running time is O(M * N^2) for the matrix and O(F * N^2 / 64) for F fronts, the matrix
+ * needs N^2 bits. The rows are independent of each other, so they can be computed in parallel
+ * blocks on a fork/join pool. This sorter pays off for small populations with many objectives,
+ * where the divide-and-conquer sorter has little to divide.
+ */
+public class BitsetNonDominatedSorter implements NonDominatedSorter
+{
+
+    // number of matrix rows computed by one task
+    private static final int BLOCK_SIZE = 64;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructor. The dominance matrix is computed on the calling thread.
+     */
+    public BitsetNonDominatedSorter()
+    {
+        this.pool = null;
+    }
+
+    /**
+     * Constructor. The rows of the dominance matrix are computed in parallel blocks.
+     *
+     * @param pool fork/join pool computing the rows
+     */
+    public BitsetNonDominatedSorter(ForkJoinPool pool)
+    {
+        if (pool == null)
+        {
+            throw new IllegalArgumentException("'pool' must not be null.");
+        }
+
+        this.pool = pool;
+    }
+
+    @Override
+    public int sort(double[] objectives, int numberOfPoints, int numberOfObjectives, int[] ranks)
+    {
+        return sort(objectives, numberOfPoints, numberOfObjectives, ranks, numberOfPoints);
+    }
+
+    @Override
+    public int sort(double[] objectives, int numberOfPoints, int numberOfObjectives, int[] ranks,
+            int requiredPoints)
+    {
+        SorterSupport.checkArguments(objectives, numberOfPoints, numberOfObjectives, ranks);
+
+        if (numberOfPoints == 0)
+        {
+            return 0;
+        }
+
+        int words = (numberOfPoints + 63) >>> 6;
+        long[] dominators = new long[numberOfPoints * words];
+        boolean[] hasNaN = SorterSupport.findNaNs(objectives, numberOfPoints, numberOfObjectives);
+        long[] valid = new long[words];
+        for (int p = 0; p < numberOfPoints; p++)
+        {
+            if (!hasNaN[p])
+            {
+                valid[p >>> 6] |= 1L << p;
+            }
+        }
+
+        DominanceRows task = new DominanceRows(objectives, numberOfPoints, numberOfObjectives, hasNaN, valid,
+                dominators, 0, numberOfPoints);
+        if (pool == null || numberOfPoints <= BLOCK_SIZE)
+        {
+            task.compute();
+        }
+        else
+        {
+            pool.invoke(task);
+        }
+
+        // peel off the fronts until enough points are ranked
+        long[] remaining = new long[words];
+        for (int w = 0; w < words; w++)
+        {
+            remaining[w] = -1L;
+        }
+        if ((numberOfPoints & 63) != 0)
+        {
+            remaining[words - 1] = (1L << numberOfPoints) - 1;
+        }
+        int numberRemaining = numberOfPoints;
+        long[] front = new long[words];
+        int numberOfFronts = 0;
+        while (numberRemaining > 0 && numberOfPoints - numberRemaining < requiredPoints)
+        {
+            numberOfFronts++;
+            for (int w = 0; w < words; w++)
+            {
+                long candidates = remaining[w];
+                long members = 0;
+                while (candidates != 0)
+                {
+                    long bit = Long.lowestOneBit(candidates);
+                    candidates ^= bit;
+                    int q = (w << 6) + Long.numberOfTrailingZeros(bit);
+                    if (!intersects(dominators, q * words, remaining, words))
+                    {
+                        members |= bit;
+                        ranks[q] = numberOfFronts;
+                    }
+                }
+                front[w] = members;
+            }
+            for (int w = 0; w < words; w++)
+            {
+                remaining[w] &= ~front[w];
+                numberRemaining -= Long.bitCount(front[w]);
+            }
+        }
+        for (int w = 0; w < words; w++)
+        {
+            long unranked = remaining[w];
+            while (unranked != 0)
+            {
+                ranks[(w << 6) + Long.numberOfTrailingZeros(unranked)] = UNRANKED;
+                unranked &= unranked - 1;
+            }
+        }
+
+        return numberOfFronts;
+    }
+
+    /**
+     * Checks whether the bitset starting at <code>offset</code> shares a bit with
+     * <code>other</code>.
+     */
+    private static boolean intersects(long[] bits, int offset, long[] other, int words)
+    {
+        for (int w = 0; w < words; w++)
+        {
+            if ((bits[offset + w] & other[w]) != 0)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Computes the rows <code>from ... to - 1</code> of the dominance matrix, splitting them into
+     * blocks of {@link #BLOCK_SIZE} rows.
+     */
+    private static class DominanceRows extends RecursiveAction
+    {
+
+        private static final long serialVersionUID = 1L;
+
+        private final double[] objectives;
+        private final int numberOfPoints;
+        private final int numberOfObjectives;
+        private final boolean[] hasNaN;
+        private final long[] valid;
+        private final long[] dominators;
+        private final int from;
+        private final int to;
+
+        DominanceRows(double[] objectives, int numberOfPoints, int numberOfObjectives, boolean[] hasNaN,
+                long[] valid, long[] dominators, int from, int to)
+        {
+            this.objectives = objectives;
+            this.numberOfPoints = numberOfPoints;
+            this.numberOfObjectives = numberOfObjectives;
+            this.hasNaN = hasNaN;
+            this.valid = valid;
+            this.dominators = dominators;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (getPool() != null && to - from > BLOCK_SIZE)
+            {
+                int middle = from + (((to - from) / BLOCK_SIZE + 1) / 2) * BLOCK_SIZE;
+                invokeAll(new DominanceRows(objectives, numberOfPoints, numberOfObjectives, hasNaN, valid,
+                        dominators, from, middle),
+                        new DominanceRows(objectives, numberOfPoints, numberOfObjectives, hasNaN, valid,
+                        dominators, middle, to));
+                return;
+            }
+
+            int words = valid.length;
+            for (int q = from; q < to; q++)
+            {
+                int offset = q * words;
+                if (hasNaN[q])
+                {
+                    // dominated by every point without 'NaN'
+                    System.arraycopy(valid, 0, dominators, offset, words);
+                    continue;
+                }
+
+                // branch-free comparison of all objectives, NaN points never dominate
+                int rowQ = q * numberOfObjectives;
+                for (int p = 0; p < numberOfPoints; p++)
+                {
+                    int rowP = p * numberOfObjectives;
+                    boolean noObjectiveWorse = !hasNaN[p];
+                    boolean atLeastOneObjectiveBetter = false;
+                    for (int m = 0; m < numberOfObjectives; m++)
+                    {
+                        double valueP = objectives[rowP + m];
+                        double valueQ = objectives[rowQ + m];
+                        noObjectiveWorse &= valueP <= valueQ;
+                        atLeastOneObjectiveBetter |= valueP < valueQ;
+                    }
+                    if (noObjectiveWorse & atLeastOneObjectiveBetter)
+                    {
+                        dominators[offset + (p >>> 6)] |= 1L << p;
+                    }
+                }
+            }
+        }
+    }
+}
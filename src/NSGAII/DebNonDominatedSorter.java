@@ -0,0 +1,135 @@
+package NSGAII;
+
+/**
+ * Fast non-dominated sort as described by Deb et al. for NSGA-II. Every pair of points is
+ * compared once, so the running time is O(M * N^2) for N points and M objectives. Mostly kept as
+ * a reference implementation for the faster sorters.
+ */
+public class DebNonDominatedSorter implements NonDominatedSorter
+{
+
+    @Override
+    public int sort(double[] objectives, int numberOfPoints, int numberOfObjectives, int[] ranks)
+    {
+        return sort(objectives, numberOfPoints, numberOfObjectives, ranks, numberOfPoints);
+    }
+
+    @Override
+    public int sort(double[] objectives, int numberOfPoints, int numberOfObjectives, int[] ranks,
+            int requiredPoints)
+    {
+        SorterSupport.checkArguments(objectives, numberOfPoints, numberOfObjectives, ranks);
+
+        if (numberOfPoints == 0)
+        {
+            return 0;
+        }
+
+        boolean[] hasNaN = SorterSupport.findNaNs(objectives, numberOfPoints, numberOfObjectives);
+
+        // points dominated by p are stored in dominated[p][0 ... numberDominated[p] - 1]
+        int[][] dominated = new int[numberOfPoints][];
+        int[] numberDominated = new int[numberOfPoints];
+        int[] numberOfDominatingPoints = new int[numberOfPoints];
+        int[] currentFront = new int[numberOfPoints];
+        int currentFrontSize = 0;
+
+        for (int p = 0; p < numberOfPoints; p++)
+        {
+            int[] dominatedByP = new int[4];
+            int count = 0;
+            for (int q = 0; q < numberOfPoints; q++)
+            {
+                if (dominates(objectives, numberOfObjectives, hasNaN, p, q))
+                {
+                    if (count == dominatedByP.length)
+                    {
+                        int[] grown = new int[count * 2];
+                        System.arraycopy(dominatedByP, 0, grown, 0, count);
+                        dominatedByP = grown;
+                    }
+                    dominatedByP[count++] = q;
+                }
+                else if (dominates(objectives, numberOfObjectives, hasNaN, q, p))
+                {
+                    numberOfDominatingPoints[p]++;
+                }
+            }
+            dominated[p] = dominatedByP;
+            numberDominated[p] = count;
+
+            ranks[p] = UNRANKED;
+            if (numberOfDominatingPoints[p] == 0)
+            {
+                // p belongs to the first front
+                currentFront[currentFrontSize++] = p;
+            }
+        }
+
+        int numberOfFronts = 0;
+        int numberOfRankedPoints = 0;
+        int[] nextFront = new int[numberOfPoints];
+        while (currentFrontSize > 0 && numberOfRankedPoints < requiredPoints)
+        {
+            numberOfFronts++;
+            for (int i = 0; i < currentFrontSize; i++)
+            {
+                ranks[currentFront[i]] = numberOfFronts;
+            }
+            numberOfRankedPoints += currentFrontSize;
+
+            int nextFrontSize = 0;
+            for (int i = 0; i < currentFrontSize; i++)
+            {
+                int p = currentFront[i];
+                for (int j = 0; j < numberDominated[p]; j++)
+                {
+                    int q = dominated[p][j];
+                    if (--numberOfDominatingPoints[q] == 0)
+                    {
+                        nextFront[nextFrontSize++] = q;
+                    }
+                }
+            }
+            int[] temp = currentFront;
+            currentFront = nextFront;
+            nextFront = temp;
+            currentFrontSize = nextFrontSize;
+        }
+
+        return numberOfFronts;
+    }
+
+    /**
+     * Checks whether point p dominates point q. Mirrors {@link Individual#dominates(Individual)}.
+     */
+    private static boolean dominates(double[] objectives, int numberOfObjectives, boolean[] hasNaN,
+            int p, int q)
+    {
+        if (hasNaN[p])
+        {
+            return false;
+        }
+        if (hasNaN[q])
+        {
+            return true;
+        }
+
+        boolean atLeastOneObjectiveBetter = false;
+        int rowP = p * numberOfObjectives;
+        int rowQ = q * numberOfObjectives;
+        for (int m = 0; m < numberOfObjectives; m++)
+        {
+            if (objectives[rowP + m] > objectives[rowQ + m])
+            {
+                return false;
+            }
+            if (objectives[rowP + m] < objectives[rowQ + m])
+            {
+                atLeastOneObjectiveBetter = true;
+            }
+        }
+
+        return atLeastOneObjectiveBetter;
+    }
+}
@@ -0,0 +1,530 @@
+package NSGAII;
+
+/**
+ * Divide-and-conquer non-dominated sort as described in
+ *
+ * JENSEN, Mikkel T.: "Reducing the Run-Time Complexity of Multiobjective EAs: The NSGA-II and
+ * Other Algorithms". In: IEEE Transactions on Evolutionary Computation, vol. 7, no. 5, 2003.
+ *
+ * FORTIN, Felix-Antoine ; GRENIER, Simon ; PARIZEAU, Marc: "Generalizing the Improved Run-Time
+ * Complexity Algorithm for Non-Dominated Sorting". In: Proceedings of GECCO 2013.
+ *
+ * including the corrections of Buzdalov and Shalyto (PPSN 2014). The running time is
+ * O(N log^(M-1) N) for N points and M objectives.
+ *
+ * The points are sorted lexicographically and equal points are merged first. Afterwards, the
+ * last objective is split at its median and the halves are solved recursively, merging the
+ * results with one objective less. Two objectives are handled directly by a sweep line in
+ * O(N log N), so the 2-objective case needs no recursion at all and the 3-objective case only
+ * recurses on the third objective.
+ */
+public class DivideAndConquerNonDominatedSorter implements NonDominatedSorter
+{
+
+    @Override
+    public int sort(double[] objectives, int numberOfPoints, int numberOfObjectives,
+            int[] ranks)
+    {
+        SorterSupport.checkArguments(objectives, numberOfPoints, numberOfObjectives, ranks);
+
+        if (numberOfPoints == 0)
+        {
+            return 0;
+        }
+
+        // points with 'NaN' are dominated by all other points and are ranked last
+        boolean[] hasNaN = SorterSupport.findNaNs(objectives, numberOfPoints, numberOfObjectives);
+        int[] order = new int[numberOfPoints];
+        int numberOfValidPoints = 0;
+        for (int i = 0; i < numberOfPoints; i++)
+        {
+            if (!hasNaN[i])
+            {
+                order[numberOfValidPoints++] = i;
+            }
+        }
+
+        SorterSupport.sortLexicographically(objectives, numberOfObjectives, order, numberOfValidPoints);
+
+        // merge equal points, they always share the same rank
+        int[] uniqueIndex = new int[numberOfValidPoints];
+        double[] uniquePoints = new double[numberOfValidPoints * numberOfObjectives];
+        int numberOfUniquePoints = 0;
+        for (int i = 0; i < numberOfValidPoints; i++)
+        {
+            if (i == 0
+                    || SorterSupport.compareLexicographically(objectives, numberOfObjectives, order[i - 1], order[i]) != 0)
+            {
+                System.arraycopy(objectives, order[i] * numberOfObjectives, uniquePoints,
+                        numberOfUniquePoints * numberOfObjectives, numberOfObjectives);
+                numberOfUniquePoints++;
+            }
+            uniqueIndex[i] = numberOfUniquePoints - 1;
+        }
+
+        int[] rank = new Ranking(uniquePoints, numberOfUniquePoints, numberOfObjectives).run();
+
+        int numberOfFronts = 0;
+        for (int i = 0; i < numberOfValidPoints; i++)
+        {
+            int r = rank[uniqueIndex[i]] + 1;
+            ranks[order[i]] = r;
+            numberOfFronts = Math.max(numberOfFronts, r);
+        }
+        if (numberOfValidPoints < numberOfPoints)
+        {
+            numberOfFronts++;
+            for (int i = 0; i < numberOfPoints; i++)
+            {
+                if (hasNaN[i])
+                {
+                    ranks[i] = numberOfFronts;
+                }
+            }
+        }
+
+        return numberOfFronts;
+    }
+
+    /**
+     * Computes the 0-based ranks of unique points stored in lexicographic order.
+     */
+    private static final class Ranking
+    {
+
+        /** objective values of the unique points in lexicographic order (row-major) */
+        private double[] points;
+        private int numberOfObjectives;
+        /** 0-based ranks of the unique points */
+        private int[] rank;
+        /** staircase used by the sweep line algorithms: keys and ranks strictly increasing */
+        private double[] stairKeys;
+        private int[] stairRanks;
+        private int stairSize;
+
+        private Ranking(double[] points, int numberOfPoints, int numberOfObjectives)
+        {
+            this.points = points;
+            this.numberOfObjectives = numberOfObjectives;
+            this.rank = new int[numberOfPoints];
+            this.stairKeys = new double[numberOfPoints];
+            this.stairRanks = new int[numberOfPoints];
+        }
+
+        private int[] run()
+        {
+            if (numberOfObjectives == 1)
+            {
+                // unique values in ascending order, each one dominates all following ones
+                for (int i = 0; i < rank.length; i++)
+                {
+                    rank[i] = i;
+                }
+            }
+            else
+            {
+                int[] all = new int[rank.length];
+                for (int i = 0; i < all.length; i++)
+                {
+                    all[i] = i;
+                }
+                helperA(all, numberOfObjectives - 1);
+            }
+            return rank;
+        }
+
+        /**
+         * Ranks the points in <code>s</code> among each other, using objectives 0 ... k. All points
+         * in <code>s</code> have equal values in the objectives greater than k.
+         */
+        private void helperA(int[] s, int k)
+        {
+            if (s.length < 2)
+            {
+                return;
+            }
+            if (s.length == 2)
+            {
+                if (weaklyDominates(s[0], s[1], k))
+                {
+                    updateRank(s[1], s[0]);
+                }
+                return;
+            }
+            if (k == 1)
+            {
+                sweepA(s);
+                return;
+            }
+
+            double min = value(s[0], k);
+            double max = min;
+            for (int i = 1; i < s.length; i++)
+            {
+                double v = value(s[i], k);
+                min = Math.min(min, v);
+                max = Math.max(max, v);
+            }
+            if (min == max)
+            {
+                helperA(s, k - 1);
+                return;
+            }
+
+            double median = median(s, null, k);
+            int[][] parts = split(s, k, median);
+            int[] lower = parts[0];
+            int[] equal = parts[1];
+            int[] higher = parts[2];
+
+            helperA(lower, k);
+            helperB(lower, equal, k - 1);
+            helperA(equal, k - 1);
+            helperB(merge(lower, equal), higher, k - 1);
+            helperA(higher, k);
+        }
+
+        /**
+         * Updates the ranks of the points in <code>h</code> using the (final) ranks of the points in
+         * <code>l</code> and objectives 0 ... k. Every point in <code>l</code> is at least as good as
+         * every point in <code>h</code> in the objectives greater than k.
+         */
+        private void helperB(int[] l, int[] h, int k)
+        {
+            if (l.length == 0 || h.length == 0)
+            {
+                return;
+            }
+            if (l.length == 1 || h.length == 1)
+            {
+                for (int j = 0; j < h.length; j++)
+                {
+                    for (int i = 0; i < l.length; i++)
+                    {
+                        if (weaklyDominates(l[i], h[j], k))
+                        {
+                            updateRank(h[j], l[i]);
+                        }
+                    }
+                }
+                return;
+            }
+            if (k == 1)
+            {
+                sweepB(l, h);
+                return;
+            }
+
+            double lMin = value(l[0], k);
+            double lMax = lMin;
+            for (int i = 1; i < l.length; i++)
+            {
+                double v = value(l[i], k);
+                lMin = Math.min(lMin, v);
+                lMax = Math.max(lMax, v);
+            }
+            double hMin = value(h[0], k);
+            double hMax = hMin;
+            for (int i = 1; i < h.length; i++)
+            {
+                double v = value(h[i], k);
+                hMin = Math.min(hMin, v);
+                hMax = Math.max(hMax, v);
+            }
+
+            if (lMax <= hMin)
+            {
+                helperB(l, h, k - 1);
+            }
+            else if (lMin <= hMax)
+            {
+                double median = median(l, h, k);
+                int[][] lParts = split(l, k, median);
+                int[][] hParts = split(h, k, median);
+
+                helperB(lParts[0], hParts[0], k);
+                helperB(lParts[0], hParts[1], k - 1);
+                helperB(lParts[1], hParts[1], k - 1);
+                helperB(merge(lParts[0], lParts[1]), hParts[2], k - 1);
+                helperB(lParts[2], hParts[2], k);
+            }
+            // otherwise no point in l can dominate a point in h
+        }
+
+        /**
+         * Sweep line algorithm ranking the points in <code>s</code> among each other using the
+         * first two objectives.
+         */
+        private void sweepA(int[] s)
+        {
+            stairSize = 0;
+            for (int i = 0; i < s.length; i++)
+            {
+                int p = s[i];
+                int dominatingRank = stairQuery(value(p, 1));
+                if (dominatingRank >= 0)
+                {
+                    rank[p] = Math.max(rank[p], dominatingRank + 1);
+                }
+                stairInsert(value(p, 1), rank[p]);
+            }
+        }
+
+        /**
+         * Sweep line algorithm updating the ranks of the points in <code>h</code> using the points
+         * in <code>l</code> and the first two objectives.
+         */
+        private void sweepB(int[] l, int[] h)
+        {
+            stairSize = 0;
+            int i = 0;
+            for (int j = 0; j < h.length; j++)
+            {
+                int p = h[j];
+                // positions follow the lexicographic order
+                while (i < l.length && l[i] < p)
+                {
+                    stairInsert(value(l[i], 1), rank[l[i]]);
+                    i++;
+                }
+                int dominatingRank = stairQuery(value(p, 1));
+                if (dominatingRank >= 0)
+                {
+                    rank[p] = Math.max(rank[p], dominatingRank + 1);
+                }
+            }
+        }
+
+        /**
+         * Returns the highest rank of all staircase entries having a key less than or equal to the
+         * specified key, or -1 if there is no such entry.
+         */
+        private int stairQuery(double key)
+        {
+            int position = stairFloor(key);
+            return position < 0 ? -1 : stairRanks[position];
+        }
+
+        /**
+         * Inserts an entry into the staircase and removes all entries made redundant by it.
+         */
+        private void stairInsert(double key, int r)
+        {
+            int floor = stairFloor(key);
+            if (floor >= 0 && stairRanks[floor] >= r)
+            {
+                return;
+            }
+
+            int position = (floor >= 0 && stairKeys[floor] == key) ? floor : floor + 1;
+            int end = position;
+            while (end < stairSize && stairRanks[end] <= r)
+            {
+                end++;
+            }
+            if (end != position + 1)
+            {
+                System.arraycopy(stairKeys, end, stairKeys, position + 1, stairSize - end);
+                System.arraycopy(stairRanks, end, stairRanks, position + 1, stairSize - end);
+                stairSize += position + 1 - end;
+            }
+            stairKeys[position] = key;
+            stairRanks[position] = r;
+        }
+
+        /**
+         * Returns the position of the last staircase entry with a key less than or equal to the
+         * specified key, or -1.
+         */
+        private int stairFloor(double key)
+        {
+            int low = 0;
+            int high = stairSize - 1;
+            while (low <= high)
+            {
+                int middle = (low + high) >>> 1;
+                if (stairKeys[middle] <= key)
+                {
+                    low = middle + 1;
+                }
+                else
+                {
+                    high = middle - 1;
+                }
+            }
+            return high;
+        }
+
+        private double value(int point, int objective)
+        {
+            return points[point * numberOfObjectives + objective];
+        }
+
+        private void updateRank(int target, int source)
+        {
+            rank[target] = Math.max(rank[target], rank[source] + 1);
+        }
+
+        /**
+         * Checks whether point p is at least as good as point q in objectives 0 ... k.
+         */
+        private boolean weaklyDominates(int p, int q, int k)
+        {
+            int rowP = p * numberOfObjectives;
+            int rowQ = q * numberOfObjectives;
+            for (int m = 0; m <= k; m++)
+            {
+                if (points[rowP + m] > points[rowQ + m])
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Returns the median of the k-th objective values of the points in <code>a</code> and
+         * <code>b</code> (may be <code>null</code>).
+         */
+        private double median(int[] a, int[] b, int k)
+        {
+            int length = a.length + (b == null ? 0 : b.length);
+            double[] values = new double[length];
+            for (int i = 0; i < a.length; i++)
+            {
+                values[i] = value(a[i], k);
+            }
+            if (b != null)
+            {
+                for (int i = 0; i < b.length; i++)
+                {
+                    values[a.length + i] = value(b[i], k);
+                }
+            }
+            return select(values, length / 2);
+        }
+
+        /**
+         * Returns the n-th smallest value (quickselect).
+         */
+        private static double select(double[] values, int n)
+        {
+            int left = 0;
+            int right = values.length - 1;
+            while (left < right)
+            {
+                int middle = (left + right) >>> 1;
+                // median of three as pivot
+                double a = values[left];
+                double b = values[middle];
+                double c = values[right];
+                double pivot = a < b ? (b < c ? b : (a < c ? c : a)) : (a < c ? a : (b < c ? c : b));
+
+                int i = left;
+                int j = right;
+                while (i <= j)
+                {
+                    while (values[i] < pivot)
+                    {
+                        i++;
+                    }
+                    while (values[j] > pivot)
+                    {
+                        j--;
+                    }
+                    if (i <= j)
+                    {
+                        double temp = values[i];
+                        values[i] = values[j];
+                        values[j] = temp;
+                        i++;
+                        j--;
+                    }
+                }
+                if (n <= j)
+                {
+                    right = j;
+                }
+                else if (n >= i)
+                {
+                    left = i;
+                }
+                else
+                {
+                    return values[n];
+                }
+            }
+            return values[n];
+        }
+
+        /**
+         * Splits the points into those with a k-th objective value less than, equal to and greater
+         * than the specified median. The relative order of the points is kept.
+         */
+        private int[][] split(int[] s, int k, double median)
+        {
+            int numberLower = 0;
+            int numberEqual = 0;
+            for (int i = 0; i < s.length; i++)
+            {
+                double v = value(s[i], k);
+                if (v < median)
+                {
+                    numberLower++;
+                }
+                else if (v == median)
+                {
+                    numberEqual++;
+                }
+            }
+
+            int[] lower = new int[numberLower];
+            int[] equal = new int[numberEqual];
+            int[] higher = new int[s.length - numberLower - numberEqual];
+            int l = 0;
+            int e = 0;
+            int h = 0;
+            for (int i = 0; i < s.length; i++)
+            {
+                double v = value(s[i], k);
+                if (v < median)
+                {
+                    lower[l++] = s[i];
+                }
+                else if (v == median)
+                {
+                    equal[e++] = s[i];
+                }
+                else
+                {
+                    higher[h++] = s[i];
+                }
+            }
+            return new int[][] { lower, equal, higher };
+        }
+
+        /**
+         * Merges two ascending arrays of point positions.
+         */
+        private static int[] merge(int[] a, int[] b)
+        {
+            int[] result = new int[a.length + b.length];
+            int i = 0;
+            int j = 0;
+            int k = 0;
+            while (i < a.length && j < b.length)
+            {
+                result[k++] = a[i] < b[j] ? a[i++] : b[j++];
+            }
+            while (i < a.length)
+            {
+                result[k++] = a[i++];
+            }
+            while (j < b.length)
+            {
+                result[k++] = b[j++];
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package NSGAII;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Worker process of a {@link RemoteEvaluator}. It decodes the genomes it receives into
+ * individuals of its own NSGA-II instance, evaluates them and sends back the fitness values. The
+ * NSGA-II configuration of the worker must compute the same fitness values as the coordinator's;
+ * its evaluation parallelism and fitness cache are used for the chunks it receives.
+ */
+public class EvaluationWorker
+{
+
+    private final NSGA2 nsga2;
+    private final GenomeCodec codec;
+
+    /**
+     * Constructor.
+     *
+     * @param nsga2 NSGA-II instance of the decoded individuals
+     * @param codec codec of the genomes
+     */
+    public EvaluationWorker(NSGA2 nsga2, GenomeCodec codec)
+    {
+        if (nsga2 == null)
+        {
+            throw new IllegalArgumentException("'nsga2' must not be null.");
+        }
+        if (codec == null)
+        {
+            throw new IllegalArgumentException("'codec' must not be null.");
+        }
+
+        this.nsga2 = nsga2;
+        this.codec = codec;
+    }
+
+    /**
+     * Connects to a coordinator and evaluates chunks until the coordinator shuts the worker down
+     * or closes the connection.
+     *
+     * @param host host of the coordinator
+     * @param port TCP port of the coordinator
+     * @throws IOException if the connection fails
+     */
+    public void run(String host, int port) throws IOException
+    {
+        NSGA2Configuration conf = nsga2.getNSGA2Configuration();
+        ForkJoinPool pool = null;
+        if (conf.getEvaluationExecutor() == null && conf.getEvaluationParallelism() > 1)
+        {
+            pool = new ForkJoinPool(conf.getEvaluationParallelism());
+        }
+        ParallelEvaluator evaluator = new ParallelEvaluator(pool != null ? pool : conf.getEvaluationExecutor(),
+                conf.getEvaluationParallelism());
+
+        Socket socket = new Socket(host, port);
+        try
+        {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            out.writeInt(RemoteEvaluator.MAGIC);
+            out.writeInt(RemoteEvaluator.VERSION);
+            out.flush();
+
+            int numberOfObjectives = conf.getNumberOfObjectives();
+            while (true)
+            {
+                int type;
+                try
+                {
+                    type = in.readInt();
+                }
+                catch (EOFException e)
+                {
+                    // coordinator closed the connection
+                    return;
+                }
+                if (type == RemoteEvaluator.SHUTDOWN)
+                {
+                    return;
+                }
+                if (type != RemoteEvaluator.EVALUATE)
+                {
+                    throw new IOException("Unknown message type " + type + ".");
+                }
+
+                int chunkId = in.readInt();
+                Individual[] individuals = new Individual[in.readInt()];
+                for (int i = 0; i < individuals.length; i++)
+                {
+                    int[] genome = new int[in.readInt()];
+                    for (int g = 0; g < genome.length; g++)
+                    {
+                        genome[g] = in.readInt();
+                    }
+                    individuals[i] = codec.decode(nsga2, genome);
+                }
+
+                evaluator.evaluate(individuals);
+
+                out.writeInt(chunkId);
+                out.writeInt(individuals.length);
+                out.writeInt(numberOfObjectives);
+                for (Individual individual : individuals)
+                {
+                    for (int m = 0; m < numberOfObjectives; m++)
+                    {
+                        out.writeDouble(individual.getFitnessValue(m));
+                    }
+                }
+                out.flush();
+            }
+        }
+        finally
+        {
+            socket.close();
+            if (pool != null)
+            {
+                pool.shutdown();
+            }
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package NSGAII;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, thread-safe cache of fitness values keyed by genome (see
+ * {@link Individual#getGenomeKey()}). It is consulted by {@link Individual#evaluate()} before
+ * the fitness functions are called, so genomes recreated by crossover or surviving by elitism are
+ * not evaluated again.
+ *
+ * The cache is split into stripes selected by the key's hash code. Every stripe is an LRU map
+ * guarded by its own lock, so concurrent evaluations rarely contend.
+ */
+public class FitnessCache
+{
+
+    private static final int DEFAULT_STRIPES = 16;
+
+    private final Stripe[] stripes;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param capacity maximum number of cached genomes (>= 1)
+     */
+    public FitnessCache(int capacity)
+    {
+        this(capacity, DEFAULT_STRIPES);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param capacity maximum number of cached genomes (>= 1)
+     * @param numberOfStripes number of independently locked stripes (>= 1)
+     */
+    public FitnessCache(int capacity, int numberOfStripes)
+    {
+        if (capacity < 1)
+        {
+            throw new IllegalArgumentException("'capacity' must be a positive number.");
+        }
+        if (numberOfStripes < 1)
+        {
+            throw new IllegalArgumentException("'numberOfStripes' must be a positive number.");
+        }
+
+        numberOfStripes = Math.min(numberOfStripes, capacity);
+        stripes = new Stripe[numberOfStripes];
+        for (int i = 0; i < numberOfStripes; i++)
+        {
+            // distribute the capacity, the first stripes get the remainder
+            stripes[i] = new Stripe(capacity / numberOfStripes + (i < capacity % numberOfStripes ? 1 : 0));
+        }
+    }
+
+    private Stripe stripe(Object key)
+    {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return stripes[(hash & 0x7fffffff) % stripes.length];
+    }
+
+    /**
+     * Copies the cached fitness values of a genome into the specified array.
+     *
+     * @param key genome key
+     * @param fitnessValues array receiving the fitness values
+     * @return <code>true</code> on a hit, <code>false</code> if the genome is not cached
+     */
+    public boolean get(Object key, double[] fitnessValues)
+    {
+        Stripe stripe = stripe(key);
+        double[] cached;
+        synchronized (stripe)
+        {
+            cached = stripe.get(key);
+        }
+
+        if (cached == null || cached.length != fitnessValues.length)
+        {
+            misses.incrementAndGet();
+            return false;
+        }
+        System.arraycopy(cached, 0, fitnessValues, 0, cached.length);
+        hits.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Caches the fitness values of a genome. The values are copied.
+     *
+     * @param key genome key
+     * @param fitnessValues fitness values
+     */
+    public void put(Object key, double[] fitnessValues)
+    {
+        Stripe stripe = stripe(key);
+        double[] copy = fitnessValues.clone();
+        synchronized (stripe)
+        {
+            stripe.put(key, copy);
+        }
+    }
+
+    /**
+     * Gets the number of cached genomes.
+     *
+     * @return number of cached genomes
+     */
+    public int size()
+    {
+        int size = 0;
+        for (Stripe stripe : stripes)
+        {
+            synchronized (stripe)
+            {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Removes all cached genomes and resets the counters.
+     */
+    public void clear()
+    {
+        for (Stripe stripe : stripes)
+        {
+            synchronized (stripe)
+            {
+                stripe.clear();
+            }
+        }
+        hits.set(0);
+        misses.set(0);
+    }
+
+    /**
+     * Gets the number of lookups answered from the cache.
+     *
+     * @return number of hits
+     */
+    public long getHits()
+    {
+        return hits.get();
+    }
+
+    /**
+     * Gets the number of lookups of genomes which were not cached.
+     *
+     * @return number of misses
+     */
+    public long getMisses()
+    {
+        return misses.get();
+    }
+
+    /**
+     * Gets the fraction of lookups answered from the cache.
+     *
+     * @return hit rate (0 if there were no lookups)
+     */
+    public double getHitRate()
+    {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    /**
+     * LRU map of one stripe.
+     */
+    private static class Stripe extends LinkedHashMap<Object, double[]>
+    {
+
+        private static final long serialVersionUID = 1L;
+        private final int capacity;
+
+        Stripe(int capacity)
+        {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, double[]> eldest)
+        {
+            return size() > capacity;
+        }
+    }
+}
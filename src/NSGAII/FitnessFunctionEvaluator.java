@@ -0,0 +1,31 @@
+package NSGAII;
+
+/**
+ * Adapter evaluating every objective with its own {@link FitnessFunction}.
+ */
+public class FitnessFunctionEvaluator implements MultiObjectiveEvaluator {
+   
+   private FitnessFunction[] fitnessFunctions;
+   
+   /**
+    * Constructor.
+    * 
+    * @param fitnessFunctions fitness function of every objective
+    */
+   public FitnessFunctionEvaluator(FitnessFunction[] fitnessFunctions) {
+      if (fitnessFunctions == null) {
+         throw new IllegalArgumentException("'fitnessFunctions' must not be null.");
+      }
+      
+      this.fitnessFunctions = fitnessFunctions.clone();
+   }
+   
+   @Override
+   public void evaluate(Individual individual, double[] fitnessValues, boolean[] stale) {
+      for (int i = 0; i < fitnessValues.length; i++) {
+         if (stale == null || stale[i]) {
+            fitnessValues[i] = fitnessFunctions[i].evaluate(individual);
+         }
+      }
+   }
+}
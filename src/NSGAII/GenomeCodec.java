@@ -0,0 +1,27 @@
+package NSGAII;
+
+/**
+ * Converts individuals to compact genomes and back, so they can be sent to remote workers
+ * (see {@link RemoteEvaluator} and {@link EvaluationWorker}). A decoded individual must have the
+ * same fitness values as the encoded one.
+ */
+public interface GenomeCodec
+{
+
+    /**
+     * Encodes the genome of an individual.
+     *
+     * @param individual individual
+     * @return genome
+     */
+    int[] encode(Individual individual);
+
+    /**
+     * Creates an individual with the specified genome.
+     *
+     * @param nsga2 NSGA-II instance of the new individual
+     * @param genome genome
+     * @return new individual
+     */
+    Individual decode(NSGA2 nsga2, int[] genome);
+}
@@ -0,0 +1,59 @@
+package NSGAII;
+
+import java.util.Arrays;
+
+/**
+ * Immutable genome fingerprint for genomes which can be written as an <code>int[]</code> (e.g.
+ * the index of the selected alternative of every gene). Keys are equal iff their genes are equal;
+ * the hash code is computed once.
+ */
+public final class GenomeKey
+{
+
+    private final int[] genes;
+    private final int hash;
+
+    /**
+     * Constructor. The array is not copied and must not be changed afterwards.
+     *
+     * @param genes genes
+     */
+    public GenomeKey(int[] genes)
+    {
+        if (genes == null)
+        {
+            throw new IllegalArgumentException("'genes' must not be null.");
+        }
+
+        this.genes = genes;
+        hash = Arrays.hashCode(genes);
+    }
+
+    @Override
+    public boolean equals(Object other)
+    {
+        if (this == other)
+        {
+            return true;
+        }
+        if (!(other instanceof GenomeKey))
+        {
+            return false;
+        }
+
+        GenomeKey that = (GenomeKey) other;
+        return hash == that.hash && Arrays.equals(genes, that.genes);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return hash;
+    }
+
+    @Override
+    public String toString()
+    {
+        return Arrays.toString(genes);
+    }
+}
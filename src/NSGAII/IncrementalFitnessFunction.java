@@ -0,0 +1,30 @@
+package NSGAII;
+
+/**
+ * A fitness function which can update a fitness value from the changes of single genes instead of
+ * evaluating the whole individual again, e.g. an additive objective summing a contribution per
+ * gene.
+ * 
+ * Individuals report gene changes with {@link Individual#recordGeneChange(int, int, int)}. On the
+ * next evaluation, the previous fitness value is updated by the deltas of all changes recorded
+ * since then. Every {@link NSGA2Configuration#getIncrementalRecomputeInterval()} updates, the
+ * value is evaluated completely to bound floating-point drift.
+ * 
+ * Incrementally updated values may differ from a complete evaluation in the last bits, so they
+ * are never shared: the {@link FitnessCache} only receives completely evaluated values and is
+ * only consulted instead of a complete evaluation, never instead of an incremental update.
+ */
+public interface IncrementalFitnessFunction extends FitnessFunction {
+   
+   /**
+    * Gets the change of the fitness value if the specified gene of the individual changes from
+    * one allele to another.
+    * 
+    * @param individual individual
+    * @param gene index of the gene
+    * @param oldAllele previous allele of the gene
+    * @param newAllele new allele of the gene
+    * @return delta of the fitness value
+    */
+   double getDelta(Individual individual, int gene, int oldAllele, int newAllele);
+}
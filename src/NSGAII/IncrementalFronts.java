@@ -0,0 +1,522 @@
+package NSGAII;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Domination fronts of a set of individuals which are updated incrementally when a single
+ * individual is added or removed, following the efficient non-domination level update (ENLU) of
+ *
+ * LI, Ke ; DEB, Kalyanmoy ; ZHANG, Qingfu ; ZHANG, Qiang: "Efficient Nondomination Level Update
+ * Method for Steady-State Evolutionary Multiobjective Optimization". In: IEEE Transactions on
+ * Cybernetics, vol. 47, no. 9, 2017.
+ *
+ * An added individual goes to the first front none of whose members dominates it (found by binary
+ * search over the fronts); the members it dominates move one front down, which may push members
+ * of the following fronts down as well. Removing an individual moves the members it alone kept
+ * in the next front one front up. Only the affected fronts are compared, and crowding distances
+ * are computed per front when they are needed. Ranks equal those of a {@link NonDominatedSorter}
+ * on the same individuals, including the handling of 'NaN'.
+ *
+ * The objective values of an individual are copied when it is added, so it must be evaluated and
+ * must not change while it is a member.
+ */
+public class IncrementalFronts
+{
+
+    private final int numberOfObjectives;
+    private final ArrayList<Front> fronts = new ArrayList<Front>();
+    private final ArrayList<Member> all = new ArrayList<Member>();
+    private final Map<Individual, Member> members = new IdentityHashMap<Individual, Member>();
+
+    /**
+     * Constructor.
+     *
+     * @param numberOfObjectives number of objectives (>= 1)
+     */
+    public IncrementalFronts(int numberOfObjectives)
+    {
+        if (numberOfObjectives < 1)
+        {
+            throw new IllegalArgumentException("'numberOfObjectives' must be a positive number.");
+        }
+
+        this.numberOfObjectives = numberOfObjectives;
+    }
+
+    /**
+     * Gets the number of members.
+     *
+     * @return number of members
+     */
+    public int size()
+    {
+        return all.size();
+    }
+
+    /**
+     * Gets the number of domination fronts.
+     *
+     * @return number of fronts
+     */
+    public int getNumberOfFronts()
+    {
+        return fronts.size();
+    }
+
+    /**
+     * Gets the index-th member. The order of the members is arbitrary and changes when members
+     * are removed.
+     *
+     * @param index index of the member (0 ... size() - 1)
+     * @return member
+     */
+    public Individual get(int index)
+    {
+        return all.get(index).individual;
+    }
+
+    /**
+     * Checks whether the specified individual is a member.
+     *
+     * @param individual individual
+     * @return <code>true</code> if the individual is a member
+     */
+    public boolean contains(Individual individual)
+    {
+        return members.containsKey(individual);
+    }
+
+    /**
+     * Gets the rank of a member.
+     *
+     * @param individual member
+     * @return rank (>= 1)
+     */
+    public int getRank(Individual individual)
+    {
+        return member(individual).front + 1;
+    }
+
+    /**
+     * Gets the crowding distance of a member within its front.
+     *
+     * @param individual member
+     * @return crowding distance
+     */
+    public double getCrowdingDistance(Individual individual)
+    {
+        Member member = member(individual);
+        fronts.get(member.front).updateCrowdingDistances();
+        return member.crowdingDistance;
+    }
+
+    /**
+     * Gets the members of the specified front.
+     *
+     * @param rank rank of the front (1 ... getNumberOfFronts())
+     * @return members of the front
+     */
+    public LinkedList<Individual> getFront(int rank)
+    {
+        if (rank < 1 || rank > fronts.size())
+        {
+            throw new IndexOutOfBoundsException("Rank: " + rank + ", Fronts: " + fronts.size());
+        }
+
+        LinkedList<Individual> result = new LinkedList<Individual>();
+        for (Member member : fronts.get(rank - 1).members)
+        {
+            result.add(member.individual);
+        }
+        return result;
+    }
+
+    /**
+     * Adds an evaluated individual.
+     *
+     * @param individual individual
+     * @return rank of the individual
+     */
+    public int add(Individual individual)
+    {
+        if (individual == null)
+        {
+            throw new IllegalArgumentException("'individual' must not be null.");
+        }
+        if (members.containsKey(individual))
+        {
+            throw new IllegalArgumentException("'individual' is already a member.");
+        }
+
+        double[] objectives = new double[numberOfObjectives];
+        boolean hasNaN = false;
+        for (int m = 0; m < numberOfObjectives; m++)
+        {
+            objectives[m] = individual.getFitnessValue(m);
+            hasNaN |= Double.isNaN(objectives[m]);
+        }
+        Member added = new Member(individual, objectives, hasNaN);
+        added.position = all.size();
+        all.add(added);
+        members.put(individual, added);
+
+        // members dominated by a member moved into front f move to front f + 1
+        List<Member> moving = new ArrayList<Member>(1);
+        moving.add(added);
+        for (int f = firstNonDominatingFront(added); !moving.isEmpty(); f++)
+        {
+            if (f == fronts.size())
+            {
+                fronts.add(new Front());
+            }
+            Front front = fronts.get(f);
+            List<Member> dominated = front.removeDominatedBy(moving);
+            front.addAll(moving, f);
+            moving = dominated;
+        }
+
+        return added.front + 1;
+    }
+
+    /**
+     * Removes a member.
+     *
+     * @param individual individual
+     * @return <code>true</code> if the individual was a member
+     */
+    public boolean remove(Individual individual)
+    {
+        Member removed = members.remove(individual);
+        if (removed == null)
+        {
+            return false;
+        }
+
+        Member last = all.remove(all.size() - 1);
+        if (last != removed)
+        {
+            all.set(removed.position, last);
+            last.position = removed.position;
+        }
+
+        // members of front f + 1 no longer dominated by a member of front f move to front f
+        int f = removed.front;
+        fronts.get(f).remove(removed);
+        List<Member> leaving = new ArrayList<Member>(1);
+        leaving.add(removed);
+        while (!leaving.isEmpty() && f + 1 < fronts.size())
+        {
+            Front upper = fronts.get(f);
+            Front lower = fronts.get(f + 1);
+            List<Member> promoted = lower.removePromoted(leaving, upper);
+            upper.addAll(promoted, f);
+            leaving = promoted;
+            f++;
+        }
+        while (!fronts.isEmpty() && fronts.get(fronts.size() - 1).members.isEmpty())
+        {
+            fronts.remove(fronts.size() - 1);
+        }
+
+        return true;
+    }
+
+    /**
+     * Removes the worst member, i.e. the member of the last front with the smallest crowding
+     * distance, as the truncation of NSGA-II would.
+     *
+     * @return removed member (<code>null</code> if there are no members)
+     */
+    public Individual removeWorst()
+    {
+        if (fronts.isEmpty())
+        {
+            return null;
+        }
+
+        Front last = fronts.get(fronts.size() - 1);
+        last.updateCrowdingDistances();
+        Member worst = null;
+        for (Member member : last.members)
+        {
+            if (worst == null || member.crowdingDistance <= worst.crowdingDistance)
+            {
+                worst = member;
+            }
+        }
+        remove(worst.individual);
+        return worst.individual;
+    }
+
+    /**
+     * Returns all members as population in the order of their fronts. The ranks and crowding
+     * distances are set in the population and in the individuals.
+     *
+     * @return population
+     */
+    public Population toPopulation()
+    {
+        Population population = new Population(numberOfObjectives, all.size());
+        for (Front front : fronts)
+        {
+            front.updateCrowdingDistances();
+            for (Member member : front.members)
+            {
+                member.individual.setRank(member.front + 1);
+                member.individual.setCrowdingDistance(member.crowdingDistance);
+                population.add(member.individual);
+            }
+        }
+        return population;
+    }
+
+    private Member member(Individual individual)
+    {
+        Member member = members.get(individual);
+        if (member == null)
+        {
+            throw new IllegalArgumentException("'individual' is not a member.");
+        }
+        return member;
+    }
+
+    /**
+     * Finds the first front none of whose members dominates the specified member. If a member of
+     * front f dominates it, so does a member of every front before f, so the fronts can be
+     * searched binarily.
+     */
+    private int firstNonDominatingFront(Member member)
+    {
+        int low = 0;
+        int high = fronts.size();
+        while (low < high)
+        {
+            int middle = (low + high) >>> 1;
+            if (fronts.get(middle).dominates(member))
+            {
+                low = middle + 1;
+            }
+            else
+            {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Checks whether p dominates q, see {@link Individual#dominates(Individual)}.
+     */
+    private static boolean dominates(Member p, Member q)
+    {
+        if (p.hasNaN)
+        {
+            return false;
+        }
+        if (q.hasNaN)
+        {
+            return true;
+        }
+
+        boolean better = false;
+        for (int m = 0; m < p.objectives.length; m++)
+        {
+            if (p.objectives[m] > q.objectives[m])
+            {
+                return false;
+            }
+            if (p.objectives[m] < q.objectives[m])
+            {
+                better = true;
+            }
+        }
+        return better;
+    }
+
+    private static boolean dominatedByAny(List<Member> candidates, Member member)
+    {
+        for (Member candidate : candidates)
+        {
+            if (dominates(candidate, member))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Member with a copy of its objective values.
+     */
+    private static class Member
+    {
+
+        final Individual individual;
+        final double[] objectives;
+        final boolean hasNaN;
+        int front;
+        int position;
+        double crowdingDistance;
+
+        Member(Individual individual, double[] objectives, boolean hasNaN)
+        {
+            this.individual = individual;
+            this.objectives = objectives;
+            this.hasNaN = hasNaN;
+        }
+    }
+
+    /**
+     * One domination front with lazily computed crowding distances.
+     */
+    private class Front
+    {
+
+        final ArrayList<Member> members = new ArrayList<Member>();
+        boolean crowdingDistancesValid;
+
+        boolean dominates(Member member)
+        {
+            return dominatedByAny(members, member);
+        }
+
+        void addAll(List<Member> added, int index)
+        {
+            for (Member member : added)
+            {
+                member.front = index;
+                members.add(member);
+            }
+            if (!added.isEmpty())
+            {
+                crowdingDistancesValid = false;
+            }
+        }
+
+        void remove(Member member)
+        {
+            members.remove(member);
+            crowdingDistancesValid = false;
+        }
+
+        /**
+         * Removes and returns the members dominated by one of the specified members.
+         */
+        List<Member> removeDominatedBy(List<Member> dominating)
+        {
+            List<Member> dominated = new ArrayList<Member>();
+            int kept = 0;
+            for (int i = 0; i < members.size(); i++)
+            {
+                Member member = members.get(i);
+                if (dominatedByAny(dominating, member))
+                {
+                    dominated.add(member);
+                }
+                else
+                {
+                    members.set(kept++, member);
+                }
+            }
+            truncate(kept);
+            return dominated;
+        }
+
+        /**
+         * Removes and returns the members which were dominated by one of the members leaving the
+         * previous front and are not dominated by a member remaining there.
+         */
+        List<Member> removePromoted(List<Member> leaving, Front previous)
+        {
+            List<Member> promoted = new ArrayList<Member>();
+            int kept = 0;
+            for (int i = 0; i < members.size(); i++)
+            {
+                Member member = members.get(i);
+                if (dominatedByAny(leaving, member) && !previous.dominates(member))
+                {
+                    promoted.add(member);
+                }
+                else
+                {
+                    members.set(kept++, member);
+                }
+            }
+            truncate(kept);
+            return promoted;
+        }
+
+        private void truncate(int size)
+        {
+            if (size < members.size())
+            {
+                members.subList(size, members.size()).clear();
+                crowdingDistancesValid = false;
+            }
+        }
+
+        /**
+         * Executes the crowding distance assignment of NSGA-II for this front.
+         */
+        void updateCrowdingDistances()
+        {
+            if (crowdingDistancesValid)
+            {
+                return;
+            }
+            crowdingDistancesValid = true;
+
+            int size = members.size();
+            if (size == 0)
+            {
+                return;
+            }
+            double[] objectives = new double[size * numberOfObjectives];
+            int[] sortedIndices = new int[size];
+            for (int i = 0; i < size; i++)
+            {
+                Member member = members.get(i);
+                System.arraycopy(member.objectives, 0, objectives, i * numberOfObjectives, numberOfObjectives);
+                member.crowdingDistance = 0;
+            }
+
+            for (int m = 0; m < numberOfObjectives; m++)
+            {
+                for (int i = 0; i < size; i++)
+                {
+                    sortedIndices[i] = i;
+                }
+
+                // sort using m-th objective value
+                IndexSort.sort(sortedIndices, size, objectives, numberOfObjectives, m, false);
+
+                int first = sortedIndices[0];
+                int last = sortedIndices[size - 1];
+
+                // so that boundary points are always selected
+                members.get(first).crowdingDistance = Double.POSITIVE_INFINITY;
+                members.get(last).crowdingDistance = Double.POSITIVE_INFINITY;
+
+                double min = objectives[first * numberOfObjectives + m];
+                double max = objectives[last * numberOfObjectives + m];
+
+                // If minimal and maximal fitness value for this objective are equal,
+                // do not change crowding distance
+                if (min != max)
+                {
+                    for (int i = 1; i < size - 1; i++)
+                    {
+                        members.get(sortedIndices[i]).crowdingDistance +=
+                                (objectives[sortedIndices[i + 1] * numberOfObjectives + m]
+                                - objectives[sortedIndices[i - 1] * numberOfObjectives + m])
+                                / (max - min);
+                    }
+                }
+            }
+        }
+    }
+}
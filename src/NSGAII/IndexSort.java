@@ -0,0 +1,227 @@
+package NSGAII;
+
+/**
+ * Stable sorting and selection of int indices by primitive double keys. The key of index i is read
+ * from <code>keys[i * stride + offset]</code>, so columns of a row-major matrix can be used
+ * directly.
+ */
+final class IndexSort
+{
+
+    private IndexSort()
+    {
+    }
+
+    /**
+     * Sorts <code>indices[0 ... length - 1]</code> by their keys.
+     *
+     * @param indices indices to sort
+     * @param length number of indices to sort
+     * @param keys key array
+     * @param stride distance between the keys of two consecutive indices
+     * @param offset offset of the key within its row
+     * @param descending <code>true</code> for descending, <code>false</code> for ascending order
+     */
+    static void sort(int[] indices, int length, double[] keys, int stride, int offset, boolean descending)
+    {
+        int[] buffer = new int[length];
+        mergeSort(indices, buffer, 0, length, keys, stride, offset, descending);
+    }
+
+    private static boolean before(double[] keys, int stride, int offset, boolean descending, int a, int b)
+    {
+        double keyA = keys[a * stride + offset];
+        double keyB = keys[b * stride + offset];
+        return descending ? keyA > keyB : keyA < keyB;
+    }
+
+    private static void mergeSort(int[] indices, int[] buffer, int from, int to, double[] keys, int stride,
+            int offset, boolean descending)
+    {
+        if (to - from < 8)
+        {
+            // insertion sort for small ranges
+            for (int i = from + 1; i < to; i++)
+            {
+                int current = indices[i];
+                int j = i - 1;
+                while (j >= from && before(keys, stride, offset, descending, current, indices[j]))
+                {
+                    indices[j + 1] = indices[j];
+                    j--;
+                }
+                indices[j + 1] = current;
+            }
+            return;
+        }
+
+        int middle = (from + to) >>> 1;
+        mergeSort(indices, buffer, from, middle, keys, stride, offset, descending);
+        mergeSort(indices, buffer, middle, to, keys, stride, offset, descending);
+        if (!before(keys, stride, offset, descending, indices[middle], indices[middle - 1]))
+        {
+            return;
+        }
+
+        System.arraycopy(indices, from, buffer, from, to - from);
+        int i = from;
+        int j = middle;
+        int k = from;
+        while (i < middle && j < to)
+        {
+            if (before(keys, stride, offset, descending, buffer[j], buffer[i]))
+            {
+                indices[k++] = buffer[j++];
+            }
+            else
+            {
+                indices[k++] = buffer[i++];
+            }
+        }
+        while (i < middle)
+        {
+            indices[k++] = buffer[i++];
+        }
+        while (j < to)
+        {
+            indices[k++] = buffer[j++];
+        }
+    }
+
+    /**
+     * Moves the first k indices by their keys to <code>indices[0 ... k - 1]</code> (in no
+     * particular order) in linear expected time (introselect). Equal keys are ordered by the
+     * smaller index first, so for indices in ascending order the selected indices are the first k
+     * of {@link #sort(int[], int, double[], int, int, boolean)}.
+     *
+     * @param indices indices to select from
+     * @param length number of indices to select from
+     * @param keys key array
+     * @param stride distance between the keys of two consecutive indices
+     * @param offset offset of the key within its row
+     * @param k number of indices to select (0 ... length)
+     * @param descending <code>true</code> to select the largest, <code>false</code> to select the
+     * smallest keys
+     */
+    static void select(int[] indices, int length, double[] keys, int stride, int offset, int k,
+            boolean descending)
+    {
+        int left = 0;
+        int right = length - 1;
+        // fall back to heap sort after 2 * log2(length) bad partitions
+        int depth = 2 * (32 - Integer.numberOfLeadingZeros(length));
+        while (left < right && k > left && k <= right)
+        {
+            if (depth-- == 0)
+            {
+                heapSort(indices, left, right + 1, keys, stride, offset, descending);
+                return;
+            }
+
+            // median of three as pivot
+            int middle = (left + right) >>> 1;
+            if (precedes(keys, stride, offset, descending, indices[middle], indices[left]))
+            {
+                swap(indices, middle, left);
+            }
+            if (precedes(keys, stride, offset, descending, indices[right], indices[left]))
+            {
+                swap(indices, right, left);
+            }
+            if (precedes(keys, stride, offset, descending, indices[right], indices[middle]))
+            {
+                swap(indices, right, middle);
+            }
+            int pivot = indices[middle];
+
+            // the order is strict, so the pivot separates the range
+            int i = left;
+            int j = right;
+            while (i <= j)
+            {
+                while (precedes(keys, stride, offset, descending, indices[i], pivot))
+                {
+                    i++;
+                }
+                while (precedes(keys, stride, offset, descending, pivot, indices[j]))
+                {
+                    j--;
+                }
+                if (i <= j)
+                {
+                    swap(indices, i, j);
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j + 1)
+            {
+                right = j;
+            }
+            else if (k >= i)
+            {
+                left = i;
+            }
+            else
+            {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Strict total order of the selection: by key (as {@link Double#compare(double, double)}),
+     * equal keys by index.
+     */
+    private static boolean precedes(double[] keys, int stride, int offset, boolean descending, int a, int b)
+    {
+        int c = Double.compare(keys[a * stride + offset], keys[b * stride + offset]);
+        if (descending)
+        {
+            c = -c;
+        }
+        return c < 0 || (c == 0 && a < b);
+    }
+
+    private static void swap(int[] indices, int i, int j)
+    {
+        int temp = indices[i];
+        indices[i] = indices[j];
+        indices[j] = temp;
+    }
+
+    private static void heapSort(int[] indices, int from, int to, double[] keys, int stride, int offset,
+            boolean descending)
+    {
+        int n = to - from;
+        for (int i = n / 2 - 1; i >= 0; i--)
+        {
+            siftDown(indices, from, i, n, keys, stride, offset, descending);
+        }
+        for (int end = n - 1; end > 0; end--)
+        {
+            swap(indices, from, from + end);
+            siftDown(indices, from, 0, end, keys, stride, offset, descending);
+        }
+    }
+
+    private static void siftDown(int[] indices, int from, int i, int n, double[] keys, int stride, int offset,
+            boolean descending)
+    {
+        while (2 * i + 1 < n)
+        {
+            int child = 2 * i + 1;
+            if (child + 1 < n
+                    && precedes(keys, stride, offset, descending, indices[from + child], indices[from + child + 1]))
+            {
+                child++;
+            }
+            if (!precedes(keys, stride, offset, descending, indices[from + i], indices[from + child]))
+            {
+                return;
+            }
+            swap(indices, from + i, from + child);
+            i = child;
+        }
+    }
+}
@@ -23,6 +23,9 @@ package NSGAII;
  * along with this library; if not, write to the Free Software Foundation, Inc.,
  * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  */
+
+import java.util.SplittableRandom;
+
 public abstract class Individual {
    
    /** NSGA2 instance this individual belongs to */
@@ -31,6 +34,21 @@ public abstract class Individual {
    private int rank;
    private double crowdingDistance;
    
+   /** cached fitness values, only valid if 'fitnessValid' is set */
+   private double[] fitnessValues;
+   private boolean fitnessValid;
+   
+   /**
+    * set if 'fitnessValues' are the values before the recorded gene changes, i.e. they can be
+    * updated incrementally
+    */
+   private boolean previousValid;
+   /** recorded gene changes as (gene, old allele, new allele) triples */
+   private int[] geneChanges;
+   private int numberOfGeneChanges;
+   /** number of incremental updates since the last complete evaluation */
+   private int incrementalUpdates;
+   
    /**
     * Constructor.
     * 
@@ -43,7 +61,21 @@ public abstract class Individual {
       
       this.nsga2 = nsga2;
    }
-   
+
+   /**
+    * Moves this individual to another NSGA-II instance with the same objectives, e.g. a migrant
+    * to the island it joins. The fitness values stay valid.
+    *
+    * @param nsga2 NSGA-II instance this individual is used for from now on
+    */
+   void moveTo(NSGA2 nsga2) {
+      if (nsga2 == null) {
+         throw new IllegalArgumentException("'NSGA2 Instance' must not be null.");
+      }
+
+      this.nsga2 = nsga2;
+   }
+
    /**
     * Gets the number of objectives.
     * 
@@ -54,16 +86,73 @@ public abstract class Individual {
    }
    
    /**
-    * Gets this individual's fitness value for the index-th objective.
-    * 
-    * Classes implementing this abstract method must ensure that the fitness values for the
-    * different objectives are updated right after creation, crossover or mutation.
+    * Gets this individual's fitness value for the index-th objective. If the fitness values are
+    * not valid (see {@link #invalidateFitnessValues()}), they are evaluated first.
     * 
     * @param index index
     * @return fitness value for the index-th objective
     * @throws IndexOutOfBoundsException if the index is out of bounds
     */
-   public abstract double getFitnessValue(int index) throws IndexOutOfBoundsException;
+   public double getFitnessValue(int index) throws IndexOutOfBoundsException {
+      evaluate();
+      return fitnessValues[index];
+   }
+   
+   /**
+    * Checks whether the cached fitness values are valid, i.e. the individual has been evaluated
+    * since its last change.
+    * 
+    * @return <code>true</code> iff the fitness values are valid
+    */
+   public boolean isEvaluated() {
+      return fitnessValid;
+   }
+   
+   /**
+    * Marks the cached fitness values as invalid. Classes extending this class must call this
+    * method or {@link #recordGeneChange(int, int, int)} whenever the genes of the individual
+    * change. The fitness values are then evaluated again on the next call of
+    * {@link #getFitnessValue(int)} or {@link #evaluate()}.
+    */
+   protected void invalidateFitnessValues() {
+      fitnessValid = false;
+      previousValid = false;
+      numberOfGeneChanges = 0;
+   }
+   
+   /**
+    * Records the change of a single gene and marks the cached fitness values as invalid. Unlike
+    * {@link #invalidateFitnessValues()}, the fitness values of {@link IncrementalFitnessFunction}s
+    * are then updated by the deltas of the recorded changes instead of being evaluated again.
+    * Alleles are encoded as int values whose meaning is up to the implementation of the
+    * individual and its fitness functions.
+    * 
+    * @param gene index of the gene
+    * @param oldAllele previous allele of the gene
+    * @param newAllele new allele of the gene
+    */
+   protected void recordGeneChange(int gene, int oldAllele, int newAllele) {
+      if (fitnessValid) {
+         fitnessValid = false;
+         previousValid = true;
+         numberOfGeneChanges = 0;
+      }
+      if (!previousValid) {
+         return;
+      }
+      
+      if (geneChanges == null) {
+         geneChanges = new int[3 * 8];
+      } else if (3 * numberOfGeneChanges == geneChanges.length) {
+         int[] newGeneChanges = new int[2 * geneChanges.length];
+         System.arraycopy(geneChanges, 0, newGeneChanges, 0, geneChanges.length);
+         geneChanges = newGeneChanges;
+      }
+      int i = 3 * numberOfGeneChanges++;
+      geneChanges[i] = gene;
+      geneChanges[i + 1] = oldAllele;
+      geneChanges[i + 2] = newAllele;
+   }
    
    /**
     * Gets this individual's rank.
@@ -131,10 +220,10 @@ public abstract class Individual {
       boolean hasOtherNaN = false;
       
       for (int i = 0; i < nsga2.getNSGA2Configuration().getNumberOfObjectives(); i++) {
-         if (new Double(getFitnessValue(i)).equals(Double.NaN)) {
+         if (Double.isNaN(getFitnessValue(i))) {
             hasThisNaN = true;
          }
-         if (new Double(otherIndividual.getFitnessValue(i)).equals(Double.NaN)) {
+         if (Double.isNaN(otherIndividual.getFitnessValue(i))) {
             hasOtherNaN = true;
          }
       }
@@ -195,11 +284,23 @@ public abstract class Individual {
       return false;
    }
    
+   /**
+    * Gets the random number stream to be used by this individual's genetic operators, i.e. the
+    * stream the NSGA-II instance bound to the current thread (see {@link RandomStreams#current()}).
+    * 
+    * @return random number stream
+    */
+   protected SplittableRandom getRandom() {
+      return nsga2.getNSGA2Configuration().getRandomStreams().current();
+   }
+   
    /**
     * Mutates this individual.
     * 
-    * Classes implementing this abstract method must ensure that the fitness values for the
-    * different objectives are updated right after mutation.
+    * Classes implementing this abstract method must report every changed gene, either by
+    * {@link #recordGeneChange(int, int, int)} so that {@link IncrementalFitnessFunction}s update
+    * their values by deltas, or by {@link #invalidateFitnessValues()} if the change cannot be
+    * described gene by gene. The fitness values are evaluated later on.
     */
    protected abstract void mutate();
    
@@ -208,13 +309,169 @@ public abstract class Individual {
     * the original individuals are still needed, use the {@link #clone()} method to get clones and
     * use them instead.
     * 
-    * Classes implementing this abstract method must ensure that the fitness values for the
-    * different objectives (for both individuals!) are updated right after crossover.
+    * Classes implementing this abstract method must report the changed genes of both individuals,
+    * either by {@link #recordGeneChange(int, int, int)} for delta evaluation or by
+    * {@link #invalidateFitnessValues()} otherwise (see {@link #mutate()}). The fitness values are
+    * evaluated later on.
     * 
     * @param otherIndividual other individual
     */
    protected abstract void crossover(Individual otherIndividual);
    
+   /**
+    * Evaluates the fitness values of this individual for all objectives unless the cached fitness
+    * values are still valid. NSGA-II evaluates the offspring of one generation as a batch after
+    * crossover and mutation, possibly on several threads at the same time.
+    * 
+    * If the previous fitness values are still usable, they are updated by the recorded gene
+    * changes (see {@link #recordGeneChange(int, int, int)}). Otherwise, the values are evaluated
+    * completely: if the NSGA-II configuration has a {@link FitnessCache} and this individual has a
+    * genome key (see {@link #getGenomeKey()}), the cache is consulted first and receives the values
+    * on a miss. The cache thus only holds exact values and replaces complete evaluations only, so
+    * it does not change the course of a run.
+    */
+   public void evaluate() {
+      if (fitnessValid) {
+         return;
+      }
+      
+      if (fitnessValues == null) {
+         fitnessValues = new double[getNumberOfObjectives()];
+      }
+      
+      NSGA2Configuration conf = nsga2.getNSGA2Configuration();
+      if (previousValid && incrementalUpdates < conf.getIncrementalRecomputeInterval()) {
+         updateFitnessValues(fitnessValues);
+         incrementalUpdates++;
+      } else {
+         // only exact values are shared, and a hit gives the same values as the complete
+         // evaluation it replaces, so the values do not depend on the cache or its threads
+         FitnessCache cache = conf.getFitnessCache();
+         Object key = cache == null ? null : getGenomeKey();
+         if (key == null || !cache.get(key, fitnessValues)) {
+            computeFitnessValues(fitnessValues);
+            if (key != null) {
+               cache.put(key, fitnessValues);
+            }
+         }
+         incrementalUpdates = 0;
+      }
+      
+      fitnessValid = true;
+      previousValid = false;
+      numberOfGeneChanges = 0;
+   }
+   
+   /**
+    * Takes the fitness values of this individual from the fitness cache if they are cached there.
+    * 
+    * @return <code>true</code> if the fitness values are valid afterwards
+    */
+   boolean evaluateFromCache() {
+      if (fitnessValid) {
+         return true;
+      }
+      
+      FitnessCache cache = nsga2.getNSGA2Configuration().getFitnessCache();
+      Object key = cache == null ? null : getGenomeKey();
+      if (key == null) {
+         return false;
+      }
+      if (fitnessValues == null) {
+         fitnessValues = new double[getNumberOfObjectives()];
+      }
+      if (!cache.get(key, fitnessValues)) {
+         return false;
+      }
+      
+      fitnessValid = true;
+      previousValid = false;
+      numberOfGeneChanges = 0;
+      incrementalUpdates = 0;
+      return true;
+   }
+   
+   /**
+    * Sets fitness values which were evaluated elsewhere, e.g. by a remote worker, and caches them.
+    * 
+    * @param values fitness values of all objectives
+    */
+   void setFitnessValues(double[] values) {
+      if (values.length != getNumberOfObjectives()) {
+         throw new IllegalArgumentException("Incorrect number of fitness values.");
+      }
+      
+      fitnessValues = values.clone();
+      FitnessCache cache = nsga2.getNSGA2Configuration().getFitnessCache();
+      Object key = cache == null ? null : getGenomeKey();
+      if (key != null) {
+         cache.put(key, fitnessValues);
+      }
+      
+      fitnessValid = true;
+      previousValid = false;
+      numberOfGeneChanges = 0;
+      incrementalUpdates = 0;
+   }
+   
+   /**
+    * Updates the fitness values of this individual after the recorded gene changes (see
+    * {@link #recordGeneChange(int, int, int)}). The values of {@link IncrementalFitnessFunction}s
+    * are updated by the deltas of the changes, all others are evaluated completely by the
+    * multi-objective evaluator of the NSGA-II configuration.
+    * 
+    * @param fitnessValues array containing the fitness values before the changes, receiving the
+    *                      updated fitness values
+    */
+   protected void updateFitnessValues(double[] fitnessValues) {
+      NSGA2Configuration conf = nsga2.getNSGA2Configuration();
+      boolean[] stale = new boolean[fitnessValues.length];
+      boolean anyStale = false;
+      for (int i = 0; i < fitnessValues.length; i++) {
+         FitnessFunction function = conf.getFitnessFunction(i);
+         if (function instanceof IncrementalFitnessFunction) {
+            IncrementalFitnessFunction incremental = (IncrementalFitnessFunction) function;
+            for (int c = 0; c < 3 * numberOfGeneChanges; c += 3) {
+               fitnessValues[i] += incremental.getDelta(this, geneChanges[c], geneChanges[c + 1],
+                     geneChanges[c + 2]);
+            }
+         } else {
+            stale[i] = true;
+            anyStale = true;
+         }
+      }
+      
+      // evaluate all other objectives in one pass
+      if (anyStale) {
+         conf.getMultiObjectiveEvaluator().evaluate(this, fitnessValues, stale);
+      }
+   }
+   
+   /**
+    * Gets a key identifying this individual's genome for the {@link FitnessCache}. Individuals
+    * with equal keys must have equal fitness values, and the key must not change when the
+    * individual is changed later on. The default implementation returns <code>null</code>, i.e.
+    * the fitness values are never cached.
+    * 
+    * @return genome key or <code>null</code>
+    */
+   public Object getGenomeKey() {
+      return null;
+   }
+   
+   /**
+    * Computes the fitness values of this individual for all objectives. The default
+    * implementation uses the multi-objective evaluator of the NSGA-II configuration.
+    * 
+    * Individuals of one batch may be evaluated on several threads at the same time, so
+    * implementations must not change state shared with other individuals.
+    * 
+    * @param fitnessValues array receiving the fitness values
+    */
+   protected void computeFitnessValues(double[] fitnessValues) {
+      nsga2.getNSGA2Configuration().getMultiObjectiveEvaluator().evaluate(this, fitnessValues, null);
+   }
+   
    /**
     * Creates a copy of this object, so that changes on the clone do not change the intern data of
     * the original.
@@ -233,15 +490,28 @@ public abstract class Individual {
       // clone crowding distance
       clone.setCrowdingDistance(getCrowdingDistance());
       
+      // clone fitness values and recorded gene changes, the genes are the same
+      if (fitnessValid || previousValid) {
+         clone.fitnessValues = fitnessValues.clone();
+         clone.fitnessValid = fitnessValid;
+         clone.previousValid = previousValid;
+         clone.incrementalUpdates = incrementalUpdates;
+         if (numberOfGeneChanges > 0) {
+            clone.geneChanges = geneChanges.clone();
+            clone.numberOfGeneChanges = numberOfGeneChanges;
+         }
+      }
+      
       return clone;
    }
    
    /**
     * Creates a clone of this individual, so that changes on the clone do not change the intern data
-    * of the original. The rank and crowding distance are not copied by this method. The NSGA-II
-    * instance is only copied.
+    * of the original. The genes must be copied, but the fitness values should not be evaluated by
+    * this method: rank, crowding distance and fitness values are copied by {@link #clone()}. The
+    * NSGA-II instance is only copied.
     * 
-    * @return cloned individual (without correct rank and crowding distance)
+    * @return cloned individual (without correct rank, crowding distance and fitness values)
     */
    protected abstract Individual createClonedIndividual();
 }
\ No newline at end of file
@@ -0,0 +1,330 @@
+package NSGAII;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Island model of NSGA-II: several independent NSGA-II instances (islands) evolve their own
+ * population on separate threads. Every few generations, each island sends copies of its best
+ * non-dominated individuals to its neighbours, which merge them into their populations by the
+ * usual environmental selection of NSGA-II. The result is the non-dominated front of all islands.
+ *
+ * Every island has its own configuration whose random streams are derived from the random streams
+ * of the base configuration, and migration happens between the epochs on the calling thread, so
+ * a run is reproducible for a given seed. The start population of an island must be created with
+ * the island's NSGA-II instance (see {@link #getIsland(int)}). Islands which would create their
+ * own evaluation pool (evaluation parallelism greater than 1, no executor and no batch evaluator)
+ * share a single pool with the evaluation parallelism of the base configuration instead.
+ */
+public class IslandModel
+{
+
+    /**
+     * Islands an island sends its migrants to.
+     */
+    public enum Topology
+    {
+        /** island k sends to island k + 1, the last one to the first one */
+        RING,
+        /** every island sends to all other islands */
+        FULLY_CONNECTED
+    }
+
+    private final NSGA2Configuration conf;
+    private final NSGA2[] islands;
+    private final int migrationInterval;
+    private final int numberOfMigrants;
+    private final Topology topology;
+
+    /**
+     * Constructor.
+     *
+     * @param conf configuration of every island (population size and number of generations per
+     * island)
+     * @param numberOfIslands number of islands (>= 1)
+     * @param migrationInterval number of generations between two migrations (>= 1)
+     * @param numberOfMigrants maximal number of individuals an island sends to each neighbour
+     * (>= 0)
+     * @param topology migration topology
+     */
+    public IslandModel(NSGA2Configuration conf, int numberOfIslands, int migrationInterval, int numberOfMigrants,
+            Topology topology)
+    {
+        if (conf == null)
+        {
+            throw new IllegalArgumentException("'conf' must not be null.");
+        }
+        if (numberOfIslands < 1)
+        {
+            throw new IllegalArgumentException("'numberOfIslands' must be a positive number.");
+        }
+        if (migrationInterval < 1)
+        {
+            throw new IllegalArgumentException("'migrationInterval' must be a positive number.");
+        }
+        if (numberOfMigrants < 0)
+        {
+            throw new IllegalArgumentException("'numberOfMigrants' must not be negative.");
+        }
+        if (topology == null)
+        {
+            throw new IllegalArgumentException("'topology' must not be null.");
+        }
+
+        this.conf = conf;
+        this.migrationInterval = migrationInterval;
+        this.numberOfMigrants = numberOfMigrants;
+        this.topology = topology;
+
+        islands = new NSGA2[numberOfIslands];
+        RandomStreams streams = conf.getRandomStreams();
+        for (int k = 0; k < numberOfIslands; k++)
+        {
+            NSGA2Configuration islandConf = conf.copy();
+            islandConf.setRandomStreams(new RandomStreams(streams.stream(0, k).nextLong()));
+            islands[k] = new NSGA2(islandConf);
+        }
+    }
+
+    /**
+     * Gets the number of islands.
+     *
+     * @return number of islands
+     */
+    public int getNumberOfIslands()
+    {
+        return islands.length;
+    }
+
+    /**
+     * Gets the NSGA-II instance of the k-th island, e.g. to create its start population or to add
+     * listeners.
+     *
+     * @param k index of the island
+     * @return NSGA-II instance of the island
+     */
+    public NSGA2 getIsland(int k)
+    {
+        return islands[k];
+    }
+
+    /**
+     * Runs all islands and returns the merged non-dominated front.
+     *
+     * @param startPopulations start population of every island (population size as in
+     * configuration!)
+     * @return non-dominated individuals of all islands (each belongs to the NSGA-II instance of
+     * its island)
+     */
+    public Population evolve(Population[] startPopulations)
+    {
+        if (startPopulations == null)
+        {
+            throw new IllegalArgumentException("'startPopulations' must not be null.");
+        }
+        if (startPopulations.length != islands.length)
+        {
+            throw new IllegalArgumentException("There must be one start population per island.");
+        }
+
+        final Population[] populations = new Population[islands.length];
+        for (int k = 0; k < islands.length; k++)
+        {
+            Population startPopulation = startPopulations[k];
+            if (startPopulation == null)
+            {
+                throw new IllegalArgumentException("'startPopulations' must not contain null.");
+            }
+            if (startPopulation.size() != conf.getPopulationSize())
+            {
+                throw new IllegalArgumentException("Incorrect start population size.");
+            }
+            if (startPopulation.getNumberOfObjectives() != conf.getNumberOfObjectives())
+            {
+                throw new IllegalArgumentException("Incorrect number of objectives in start population.");
+            }
+            for (int i = 0; i < startPopulation.size(); i++)
+            {
+                if (startPopulation.get(i).nsga2 != islands[k])
+                {
+                    throw new IllegalArgumentException("All individuals in a start population must have the NSGA-II instance of their island.");
+                }
+            }
+            populations[k] = islands[k].select(startPopulation, startPopulation.size());
+        }
+
+        // islands without an evaluator of their own share one pool instead of creating one per epoch
+        ForkJoinPool evaluationPool = null;
+        boolean[] sharesEvaluationPool = new boolean[islands.length];
+        for (int k = 0; k < islands.length; k++)
+        {
+            NSGA2Configuration islandConf = islands[k].getNSGA2Configuration();
+            if (islandConf.getBatchEvaluator() == null && islandConf.getEvaluationExecutor() == null
+                    && islandConf.getEvaluationParallelism() > 1)
+            {
+                if (evaluationPool == null)
+                {
+                    evaluationPool = new ForkJoinPool(conf.getEvaluationParallelism());
+                }
+                islandConf.setEvaluationExecutor(evaluationPool);
+                sharesEvaluationPool[k] = true;
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(islands.length);
+        try
+        {
+            int numberOfGenerations = conf.getNumberOfGenerations();
+            for (int first = 1; first <= numberOfGenerations; first += migrationInterval)
+            {
+                final int firstGeneration = first;
+                final int lastGeneration = Math.min(first + migrationInterval - 1, numberOfGenerations);
+
+                List<Callable<Population>> tasks = new ArrayList<Callable<Population>>(islands.length);
+                for (int k = 0; k < islands.length; k++)
+                {
+                    final int island = k;
+                    tasks.add(new Callable<Population>()
+                    {
+                        @Override
+                        public Population call()
+                        {
+                            return islands[island].evolve(populations[island], firstGeneration, lastGeneration);
+                        }
+                    });
+                }
+
+                List<Future<Population>> results = executor.invokeAll(tasks);
+                for (int k = 0; k < islands.length; k++)
+                {
+                    populations[k] = results.get(k).get();
+                }
+
+                if (lastGeneration < numberOfGenerations)
+                {
+                    migrate(populations);
+                }
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Evolution was interrupted.", e);
+        }
+        catch (ExecutionException e)
+        {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error)
+            {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("Evolution failed.", cause);
+        }
+        finally
+        {
+            executor.shutdown();
+            if (evaluationPool != null)
+            {
+                for (int k = 0; k < islands.length; k++)
+                {
+                    if (sharesEvaluationPool[k])
+                    {
+                        islands[k].getNSGA2Configuration().setEvaluationExecutor(null);
+                    }
+                }
+                evaluationPool.shutdown();
+            }
+        }
+
+        // call the listeners of every island with its last generation, like a run of NSGA-II
+        int numberOfGenerations = conf.getNumberOfGenerations();
+        for (int k = 0; k < islands.length; k++)
+        {
+            islands[k].fireNSGA2Event(populations[k].getNonDominatedIndividuals(), numberOfGenerations,
+                    islands[k].numberOfEvaluations(numberOfGenerations));
+        }
+
+        // merge the fronts of all islands
+        Population union = populations[0];
+        for (int k = 1; k < islands.length; k++)
+        {
+            union = Population.union(union, populations[k]);
+        }
+        Population merged = islands[0].select(union, union.size(), false);
+        return new Population(conf.getNumberOfObjectives(), merged.getNonDominatedIndividuals());
+    }
+
+    /**
+     * Sends the migrants of every island to its neighbours.
+     *
+     * @param populations populations of the islands (ranks and crowding distances set), replaced
+     * by the populations including the migrants
+     */
+    private void migrate(Population[] populations)
+    {
+        if (islands.length == 1 || numberOfMigrants == 0)
+        {
+            return;
+        }
+
+        Individual[][] emigrants = new Individual[islands.length][];
+        for (int k = 0; k < islands.length; k++)
+        {
+            emigrants[k] = selectEmigrants(populations[k]);
+        }
+
+        for (int k = 0; k < islands.length; k++)
+        {
+            Population immigrants = new Population(conf.getNumberOfObjectives(), numberOfMigrants);
+            for (int source = 0; source < islands.length; source++)
+            {
+                if (source == k || (topology == Topology.RING && (source + 1) % islands.length != k))
+                {
+                    continue;
+                }
+                for (Individual emigrant : emigrants[source])
+                {
+                    Individual immigrant = (Individual) emigrant.clone();
+                    immigrant.moveTo(islands[k]);
+                    immigrants.add(immigrant);
+                }
+            }
+            populations[k] = islands[k].select(Population.union(populations[k], immigrants),
+                    conf.getPopulationSize());
+        }
+    }
+
+    /**
+     * Selects the non-dominated members of a population with the largest crowding distances.
+     */
+    private Individual[] selectEmigrants(Population population)
+    {
+        int[] front = new int[population.size()];
+        int length = 0;
+        for (int i = 0; i < population.size(); i++)
+        {
+            if (population.getRank(i) == 1)
+            {
+                front[length++] = i;
+            }
+        }
+        IndexSort.sort(front, length, population.crowdingDistances(), 1, 0, true);
+
+        Individual[] emigrants = new Individual[Math.min(numberOfMigrants, length)];
+        for (int i = 0; i < emigrants.length; i++)
+        {
+            emigrants[i] = population.get(front[i]);
+        }
+        return emigrants;
+    }
+}
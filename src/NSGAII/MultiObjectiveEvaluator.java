@@ -0,0 +1,24 @@
+package NSGAII;
+
+/**
+ * Evaluates all objectives of an individual at once, so intermediate results shared by several
+ * objectives (e.g. a lookup of simulation results) are computed only once per individual. An
+ * evaluator can be registered with {@link NSGA2Configuration#setMultiObjectiveEvaluator}; by
+ * default the fitness functions of the configuration are evaluated one after the other (see
+ * {@link FitnessFunctionEvaluator}).
+ * 
+ * Individuals of one batch may be evaluated on several threads at the same time, so
+ * implementations must be thread safe.
+ */
+public interface MultiObjectiveEvaluator {
+   
+   /**
+    * Evaluates the stale objectives of the specified individual.
+    * 
+    * @param individual individual
+    * @param fitnessValues array receiving the fitness values; values of objectives which are not
+    *                      stale are already valid and must not be changed
+    * @param stale stale objectives (<code>null</code> if all objectives are stale)
+    */
+   void evaluate(Individual individual, double[] fitnessValues, boolean[] stale);
+}
@@ -4,10 +4,11 @@ import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Font;
 import java.util.Arrays;
-import java.util.Comparator;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 import javax.swing.JFrame;
 import org.jfree.chart.ChartFactory;
 import org.jfree.chart.ChartPanel;
@@ -153,6 +154,50 @@ public class NSGA2
      * rank 1)
      */
     public LinkedList<Individual> evolve(LinkedList<Individual> startPopulation)
+    {
+        if (startPopulation == null)
+        {
+            throw new IllegalArgumentException("'startPopulation' must not be null.");
+        }
+
+        return evolve(new Population(conf.getNumberOfObjectives(), startPopulation)).toLinkedList();
+    }
+
+    /**
+     * Initializes and runs the NSGA-II algorithm.
+     *
+     * @param startPopulation start population (population size as in
+     * configuration!)
+     * @return best individuals after NSGA-II run (only non-dominated ones =>
+     * rank 1)
+     */
+    public Population evolve(Population startPopulation)
+    {
+        checkStartPopulation(startPopulation);
+
+        Population population_p_t = startPopulation;
+        rank(population_p_t, population_p_t.size());
+        population_p_t.updateIndividuals();
+
+        population_p_t = evolve(population_p_t, 1, conf.getNumberOfGenerations());
+
+        LinkedList<Individual> bestIndividuals = population_p_t.getNonDominatedIndividuals();
+
+        // call NSGA-II listeners
+        fireNSGA2Event(bestIndividuals, conf.getNumberOfGenerations(),
+                numberOfEvaluations(conf.getNumberOfGenerations()));
+
+        // only return non-dominated individuals (=> first frontier)
+        return new Population(conf.getNumberOfObjectives(), bestIndividuals);
+    }
+
+    /**
+     * Checks the size, the number of objectives and the NSGA-II instance of a
+     * start population.
+     *
+     * @param startPopulation start population
+     */
+    void checkStartPopulation(Population startPopulation)
     {
         if (startPopulation == null)
         {
@@ -162,432 +207,408 @@ public class NSGA2
         {
             throw new IllegalArgumentException("Incorrect start population size.");
         }
+        if (startPopulation.getNumberOfObjectives() != conf.getNumberOfObjectives())
+        {
+            throw new IllegalArgumentException("Incorrect number of objectives in start population.");
+        }
 
         // check whether all individuals in start population have this NSGA-II instance
-        for (Individual individual : startPopulation)
+        for (int i = 0; i < startPopulation.size(); i++)
         {
-            if (individual.nsga2 != this)
+            if (startPopulation.get(i).nsga2 != this)
             {
                 throw new IllegalArgumentException("All individuals in start population must have this NSGA-II instance.");
             }
         }
+    }
 
-        LinkedList<Individual> population_p_t = startPopulation;
-
-        for (int numberGeneration = 1; numberGeneration <= conf.getNumberOfGenerations();
-                numberGeneration++)
+    /**
+     * Runs the specified generations on a ranked population of this NSGA-II instance.
+     *
+     * @param population population (ranks set)
+     * @param firstGeneration number of the first generation to make
+     * @param lastGeneration number of the last generation to make
+     * @return population after the last generation (ranks set, crowding
+     * distances set unless it is the last generation of the run)
+     */
+    Population evolve(Population population, int firstGeneration, int lastGeneration)
+    {
+        BatchEvaluator evaluator = conf.getBatchEvaluator();
+        ForkJoinPool ownPool = null;
+        if (evaluator == null)
         {
-            // call NSGA-II listeners        
-            if (!nsga2listeners.isEmpty())
+            ExecutorService executor = conf.getEvaluationExecutor();
+            if (executor == null && conf.getEvaluationParallelism() > 1)
             {
-                LinkedList<LinkedList<Individual>> temp = fastNonDominatedSort(population_p_t);
-                // only return non-dominated individuals (=> first frontier)
-                LinkedList<Individual> bestIndividuals = temp.getFirst();
+                ownPool = new ForkJoinPool(conf.getEvaluationParallelism());
+                executor = ownPool;
+            }
+            evaluator = new ParallelEvaluator(executor, conf.getEvaluationParallelism());
+        }
 
-                // create NSGA-II event
-                NSGA2Event event = new NSGA2Event(this, bestIndividuals, numberGeneration - 1);
-                for (NSGA2Listener listener : nsga2listeners)
-                {
-                    listener.performNSGA2Event(event);
-                }
+        Population population_p_t = population;
+        try
+        {
+            for (int numberGeneration = firstGeneration; numberGeneration <= lastGeneration; numberGeneration++)
+            {
+                // call NSGA-II listeners
+                // (the members of rank 1 are the non-dominated individuals of the population)
+                fireNSGA2Event(population_p_t.getNonDominatedIndividuals(), numberGeneration - 1,
+                        numberOfEvaluations(numberGeneration - 1));
+
+                // (mu + lambda): mu parents and lambda children compete for the next mu places
+                Population population_q_t = makeNewPopulation(population_p_t, numberGeneration, evaluator);
+                // no tournament follows the last generation of the run
+                population_p_t = select(Population.union(population_p_t, population_q_t), conf.getPopulationSize(),
+                        numberGeneration < conf.getNumberOfGenerations());
+            }
+        }
+        finally
+        {
+            if (ownPool != null)
+            {
+                ownPool.shutdown();
             }
+        }
 
-            LinkedList<Individual> population_q_t = makeNewPopulation(population_p_t);
-            LinkedList<Individual> population_r_t = union(population_p_t, population_q_t);
-            LinkedList<LinkedList<Individual>> dominationFronts = fastNonDominatedSort(population_r_t);
+        return population_p_t;
+    }
 
+    /**
+     * Selects the best members of the specified population by rank and
+     * crowding distance, i.e. the environmental selection of NSGA-II.
+     *
+     * @param population_r_t population to select from
+     * @param size number of members to select (at most the population size)
+     * @return selected members (ranks and crowding distances set)
+     */
+    Population select(Population population_r_t, int size)
+    {
+        return select(population_r_t, size, true);
+    }
+
+    /**
+     * Selects the best members of the specified population by rank and
+     * crowding distance, i.e. the environmental selection of NSGA-II. The
+     * front which does not fit completely is truncated to the members with
+     * the largest crowding distances by a selection, not a sort.
+     *
+     * @param population_r_t population to select from
+     * @param size number of members to select (at most the population size)
+     * @param crowdingDistances whether the crowding distances of the fronts
+     * selected completely are needed (e.g. for the next tournament); if not,
+     * they are set to 0
+     * @return selected members (ranks set)
+     */
+    Population select(Population population_r_t, int size, boolean crowdingDistances)
+    {
+        // fronts behind the one completing the selection are not needed
+        int[][] dominationFronts = rank(population_r_t, size);
 
-            LinkedList<Individual> population_p_t_1 = new LinkedList<Individual>();
+        Population population_p_t_1 = new Population(conf.getNumberOfObjectives(), size);
 
-            int i = 0;
-            while (dominationFronts.get(i) != null
-                    && population_p_t_1.size() + dominationFronts.get(i).size() <= conf.getPopulationSize())
+        int i = 0;
+        while (i < dominationFronts.length
+                && population_p_t_1.size() + dominationFronts[i].length <= size)
+        {
+            if (crowdingDistances)
             {
-                crowdingDistanceAssignment(dominationFronts.get(i));
-                population_p_t_1.addAll(dominationFronts.get(i));
-                i++;
+                crowdingDistanceAssignment(population_r_t, dominationFronts[i]);
             }
-            if (population_p_t_1.size() != conf.getPopulationSize())
+            else
             {
-                crowdingDistanceAssignment(dominationFronts.get(i));
-                Individual[] sortedIndividuals = sort(dominationFronts.get(i));
-                int numberOfMissingIndividuals = conf.getPopulationSize() - population_p_t_1.size();
-                for (i = 0; i < numberOfMissingIndividuals; i++)
+                for (int index : dominationFronts[i])
                 {
-                    population_p_t_1.add(sortedIndividuals[i]);
+                    population_r_t.crowdingDistances()[index] = 0;
                 }
             }
-
-            population_p_t = population_p_t_1;
+            for (int index : dominationFronts[i])
+            {
+                population_p_t_1.add(population_r_t, index);
+            }
+            i++;
         }
-
-        LinkedList<LinkedList<Individual>> temp = fastNonDominatedSort(population_p_t);
-        // only return non-dominated individuals (=> first frontier)
-        LinkedList<Individual> bestIndividuals = temp.getFirst();
-
-        // call NSGA-II listeners        
-        if (!nsga2listeners.isEmpty())
-        {
-            // create NSGA-II event
-            NSGA2Event event = new NSGA2Event(this, bestIndividuals, conf.getNumberOfGenerations());
-            for (NSGA2Listener listener : nsga2listeners)
+        if (population_p_t_1.size() != size)
+        {
+            int[] lastFront = dominationFronts[i];
+            crowdingDistanceAssignment(population_r_t, lastFront);
+            // same rank => crowded comparison operator only depends on the crowding distance
+            int numberOfMissingIndividuals = size - population_p_t_1.size();
+            IndexSort.select(lastFront, lastFront.length, population_r_t.crowdingDistances(), 1, 0,
+                    numberOfMissingIndividuals, true);
+            // keep the selected members in population order
+            Arrays.sort(lastFront, 0, numberOfMissingIndividuals);
+            for (i = 0; i < numberOfMissingIndividuals; i++)
             {
-                listener.performNSGA2Event(event);
+                population_p_t_1.add(population_r_t, lastFront[i]);
             }
         }
 
-        // only return non-dominated individuals (=> first frontier)
-        return bestIndividuals;
+        population_p_t_1.updateIndividuals();
+        return population_p_t_1;
     }
 
     /**
-     * Makes a new population out of the specified one using tournament
-     * selection, crossover and mutation. The new population has the same size
-     * as the original one.
+     * Informs all NSGA-II listeners about the best individuals of the specified generation.
      *
-     * @param individuals original population
-     * @return new population
+     * @param bestIndividuals best individuals (only non-dominated ones)
+     * @param numberGeneration number of generation
+     * @param numberOfEvaluations number of individuals evaluated so far
      */
-    private static LinkedList<Individual> makeNewPopulation(LinkedList<Individual> individuals)
+    void fireNSGA2Event(LinkedList<Individual> bestIndividuals, int numberGeneration, long numberOfEvaluations)
     {
-        if (individuals == null)
-        {
-            throw new IllegalArgumentException("'individuals' must not be null.");
-        }
-        if (individuals.size() % 4 != 0)
+        if (nsga2listeners.isEmpty())
         {
-            throw new IllegalArgumentException("Size of 'individuals' must be divisible by four.");
+            return;
         }
 
-        LinkedList<Individual> newPopulation = new LinkedList<Individual>();
-
-        // tournament selection and crossover
-        Individual[] a1 = new Individual[individuals.size()];
-        Individual[] a2 = new Individual[individuals.size()];
-
-        for (int i = 0; i < individuals.size(); i++)
+        // create NSGA-II event
+        NSGA2Event event = new NSGA2Event(this, bestIndividuals, numberGeneration, numberOfEvaluations);
+        for (NSGA2Listener listener : nsga2listeners)
         {
-            a1[i] = individuals.get(i);
-            a2[i] = individuals.get(i);
+            listener.performNSGA2Event(event);
         }
+    }
 
-        for (int i = 0; i < individuals.size(); i++)
-        {
-            int randomIndex = randomNumber(i, individuals.size());
-            Individual temp = a1[randomIndex];
-            a1[randomIndex] = a1[i];
-            a1[i] = temp;
+    /**
+     * Gets the number of individuals evaluated after the specified
+     * generation: the start population and the offspring of every generation.
+     *
+     * @param numberGeneration number of generation (0 for the start
+     * population)
+     * @return number of evaluations
+     */
+    long numberOfEvaluations(int numberGeneration)
+    {
+        return conf.getPopulationSize() + (long) numberGeneration * conf.getOffspringSize();
+    }
 
-            randomIndex = randomNumber(i, individuals.size());
-            temp = a2[randomIndex];
-            a2[randomIndex] = a2[i];
-            a2[i] = temp;
+    /**
+     * Makes a new population out of the specified one using the selection
+     * strategy of the configuration, crossover and mutation. The new
+     * population has the offspring size of the configuration. The offspring
+     * is evaluated as one batch after the variation.
+     *
+     * Selection uses the random stream of task 0 of the generation, the
+     * crossover and mutation of the i-th pair of children the stream of task
+     * i + 1, so the offspring only depends on the seed of the random streams.
+     *
+     * @param population original population (ranks and crowding distances set)
+     * @param numberGeneration number of the generation to make
+     * @param evaluator evaluator for the offspring
+     * @return new population
+     */
+    private Population makeNewPopulation(Population population, int numberGeneration, BatchEvaluator evaluator)
+    {
+        if (population == null)
+        {
+            throw new IllegalArgumentException("'population' must not be null.");
         }
+        int size = population.size();
+        int offspringSize = conf.getOffspringSize();
 
-        for (int i = 0; i < individuals.size(); i += 4)
-        {
-            Individual parent1 = binaryTournament(a1[i], a1[i + 1]);
-            Individual parent2 = binaryTournament(a1[i + 2], a1[i + 3]);
+        Population newPopulation = new Population(conf.getNumberOfObjectives(), offspringSize);
+        int[] ranks = population.ranks();
+        double[] crowdingDistances = population.crowdingDistances();
 
-            Individual child1 = (Individual) parent1.clone();
-            Individual child2 = (Individual) parent2.clone();
-            child1.crossover(child2);
-            newPopulation.add(child1);
-            newPopulation.add(child2);
+        RandomStreams streams = conf.getRandomStreams();
+        SplittableRandom random = streams.stream(numberGeneration, 0);
 
-            parent1 = binaryTournament(a2[i], a2[i + 1]);
-            parent2 = binaryTournament(a2[i + 2], a2[i + 3]);
+        // mating selection (one parent more for an odd offspring size)
+        int numberOfParents = offspringSize + (offspringSize & 1);
+        int[] parents = conf.getSelectionStrategy().select(ranks, crowdingDistances, size, numberOfParents, random);
 
-            child1 = (Individual) parent1.clone();
-            child2 = (Individual) parent2.clone();
-            child1.crossover(child2);
-            newPopulation.add(child1);
-            newPopulation.add(child2);
+        // crossover and mutation, every pair of children with its own stream
+        Individual[] children = new Individual[offspringSize];
+        // the stream bound to this thread before is restored afterwards
+        SplittableRandom unbound = streams.bind(null);
+        try
+        {
+            for (int i = 0; i < offspringSize; i += 2)
+            {
+                streams.bind(streams.stream(numberGeneration, i / 2 + 1));
+
+                Individual child1 = (Individual) population.get(parents[i]).clone();
+                Individual child2 = (Individual) population.get(parents[i + 1]).clone();
+                child1.crossover(child2);
+                child1.mutate();
+                children[i] = child1;
+                if (i + 1 < offspringSize)
+                {
+                    // the second child of the last pair is dropped for an odd offspring size
+                    child2.mutate();
+                    children[i + 1] = child2;
+                }
+            }
         }
-
-        // mutation
-        for (Individual individual : newPopulation)
+        finally
         {
-            individual.mutate();
+            streams.bind(unbound);
         }
 
-        return newPopulation;
-    }
-
-    /**
-     * Returns a random number between 'min' (inclusive) and 'max' (exclusive).
-     *
-     * @param min minimal value
-     * @param max maximal value
-     * @return random number
-     */
-    private static int randomNumber(int min, int max)
-    {
-        if (min >= max)
+        // evaluation
+        evaluator.evaluate(children);
+        for (Individual child : children)
         {
-            throw new IllegalArgumentException("'min' must be smaller than 'max'.");
+            newPopulation.add(child);
         }
 
-        return min + (int) Math.floor(Math.random() * (max - min));
+        return newPopulation;
     }
 
     /**
-     * Selects one out of two individuals using a binary tournament selection
-     * with the crowded comparison operator.
+     * Selects one out of two population members using a binary tournament
+     * selection with the crowded comparison operator.
      *
-     * @param individual1 first individual
-     * @param individual2 second individual
-     * @return winning individual
+     * @param random random stream for ties
+     * @param ranks ranks of the population members
+     * @param crowdingDistances crowding distances of the population members
+     * @param index1 index of the first member
+     * @param index2 index of the second member
+     * @return index of the winning member
      */
-    private static Individual binaryTournament(Individual individual1, Individual individual2)
+    static int binaryTournament(SplittableRandom random, int[] ranks, double[] crowdingDistances, int index1, int index2)
     {
-        if (individual1 == null)
+        if (isCrowdedComparisonOperatorBetter(ranks, crowdingDistances, index1, index2))
         {
-            throw new IllegalArgumentException("'individual1' must not be null.");
+            return index1;
         }
-        if (individual2 == null)
+        if (isCrowdedComparisonOperatorBetter(ranks, crowdingDistances, index2, index1))
         {
-            throw new IllegalArgumentException("'individual2' must not be null.");
+            return index2;
         }
 
-        if (individual1.isCrowdedComparisonOperatorBetter(individual2))
-        {
-            return individual1;
-        }
-        if (individual2.isCrowdedComparisonOperatorBetter(individual1))
+        // both members are "equal" -> select one randomly
+        if (random.nextDouble() < 0.5)
         {
-            return individual2;
-        }
-
-        // both individuals are "equal" -> select one randomly
-        if (Math.random() < 0.5)
-        {
-            return individual1;
+            return index1;
         }
         else
         {
-            return individual2;
+            return index2;
         }
     }
 
     /**
-     * Makes a fast non-domination sort of the specified individuals. The method
-     * returns the different domination fronts in ascending order by their rank
-     * and sets their rank value.
+     * Checks whether the first member is better using the crowded comparison operator than the
+     * second one (see {@link Individual#isCrowdedComparisonOperatorBetter(Individual)}).
+     */
+    static boolean isCrowdedComparisonOperatorBetter(int[] ranks, double[] crowdingDistances,
+            int index1, int index2)
+    {
+        return ranks[index1] < ranks[index2]
+                || (ranks[index1] == ranks[index2] && crowdingDistances[index1] > crowdingDistances[index2]);
+    }
+
+    /**
+     * Makes a fast non-domination sort of the specified population using the non-dominated
+     * sorter of the configuration. The method ranks the members front by front until at least
+     * the required number of members is ranked (the others get the rank
+     * {@link NonDominatedSorter#UNRANKED}) and returns the indices of the ranked domination
+     * fronts in ascending order by their rank.
      *
-     * @param individuals individuals to sort
-     * @return domination fronts in ascending order by their rank
+     * @param population population to sort
+     * @param requiredMembers number of members to rank at least
+     * @return member indices of the ranked domination fronts in ascending order by their rank
      */
-    private static LinkedList<LinkedList<Individual>> fastNonDominatedSort(LinkedList<Individual> individuals)
+    private int[][] rank(Population population, int requiredMembers)
     {
-        if (individuals == null)
+        if (population == null)
         {
-            throw new IllegalArgumentException("'individuals' must not be null.");
+            throw new IllegalArgumentException("'population' must not be null.");
         }
 
-        LinkedList<LinkedList<Individual>> dominationFronts = new LinkedList<LinkedList<Individual>>();
-
-        HashMap<Individual, LinkedList<Individual>> individual2DominatedIndividuals =
-                new HashMap<Individual, LinkedList<Individual>>();
-        HashMap<Individual, Integer> individual2NumberOfDominatingIndividuals =
-                new HashMap<Individual, Integer>();
+        int size = population.size();
+        int[] ranks = population.ranks();
+        int numberOfFronts = conf.getNonDominatedSorter().sort(population.objectives(), size,
+                population.getNumberOfObjectives(), ranks, requiredMembers);
 
-        for (Individual individualP : individuals)
+        int[] frontSizes = new int[numberOfFronts];
+        for (int i = 0; i < size; i++)
         {
-            individual2DominatedIndividuals.put(individualP, new LinkedList<Individual>());
-            individual2NumberOfDominatingIndividuals.put(individualP, 0);
-
-            for (Individual individualQ : individuals)
+            if (ranks[i] != NonDominatedSorter.UNRANKED)
             {
-                if (individualP.dominates(individualQ))
-                {
-                    individual2DominatedIndividuals.get(individualP).add(individualQ);
-                }
-                else
-                {
-                    if (individualQ.dominates(individualP))
-                    {
-                        individual2NumberOfDominatingIndividuals.put(individualP,
-                                individual2NumberOfDominatingIndividuals.get(individualP) + 1);
-                    }
-                }
-            }
-
-            if (individual2NumberOfDominatingIndividuals.get(individualP) == 0)
-            {
-                // p belongs to the first front
-                individualP.setRank(1);
-                if (dominationFronts.isEmpty())
-                {
-                    LinkedList<Individual> firstDominationFront = new LinkedList<Individual>();
-                    firstDominationFront.add(individualP);
-                    dominationFronts.add(firstDominationFront);
-                }
-                else
-                {
-                    LinkedList<Individual> firstDominationFront = dominationFronts.getFirst();
-                    firstDominationFront.add(individualP);
-                }
+                frontSizes[ranks[i] - 1]++;
             }
         }
-
-        int i = 1;
-        while (dominationFronts.size() == i)
+        int[][] fronts = new int[numberOfFronts][];
+        for (int f = 0; f < numberOfFronts; f++)
         {
-            LinkedList<Individual> nextDominationFront = new LinkedList<Individual>();
-            for (Individual individualP : dominationFronts.get(i - 1))
-            {
-                for (Individual individualQ : individual2DominatedIndividuals.get(individualP))
-                {
-                    individual2NumberOfDominatingIndividuals.put(individualQ,
-                            individual2NumberOfDominatingIndividuals.get(individualQ) - 1);
-                    if (individual2NumberOfDominatingIndividuals.get(individualQ) == 0)
-                    {
-                        individualQ.setRank(i + 1);
-                        nextDominationFront.add(individualQ);
-                    }
-                }
-            }
-            i++;
-            if (!nextDominationFront.isEmpty())
+            fronts[f] = new int[frontSizes[f]];
+            frontSizes[f] = 0;
+        }
+        for (int i = 0; i < size; i++)
+        {
+            if (ranks[i] != NonDominatedSorter.UNRANKED)
             {
-                dominationFronts.add(nextDominationFront);
+                int f = ranks[i] - 1;
+                fronts[f][frontSizes[f]++] = i;
             }
         }
 
-        return dominationFronts;
+        return fronts;
     }
 
     /**
-     * Executes the crowding distance assignment for the specified individuals.
+     * Executes the crowding distance assignment for the specified members of the population.
      *
-     * @param individuals individuals
+     * @param population population
+     * @param front indices of the members (one domination front)
      */
-    private static void crowdingDistanceAssignment(LinkedList<Individual> individuals)
+    private static void crowdingDistanceAssignment(Population population, int[] front)
     {
-        if (individuals == null)
+        if (population == null)
         {
-            throw new IllegalArgumentException("'individuals' must not be null.");
+            throw new IllegalArgumentException("'population' must not be null.");
         }
+        if (front == null)
+        {
+            throw new IllegalArgumentException("'front' must not be null.");
+        }
+
+        double[] crowdingDistances = population.crowdingDistances();
+        double[] objectives = population.objectives();
+        int numberOfObjectives = population.getNumberOfObjectives();
 
-        for (Individual individual : individuals)
+        for (int index : front)
         {
             // initialize crowding distance
-            individual.setCrowdingDistance(0);
+            crowdingDistances[index] = 0;
         }
 
-        int numberOfObjectives = individuals.getFirst().getNumberOfObjectives();
+        int[] sortedIndices = new int[front.length];
         for (int m = 0; m < numberOfObjectives; m++)
         {
-            Individual[] sortedIndividuals = individuals.toArray(new Individual[0]);
+            System.arraycopy(front, 0, sortedIndices, 0, front.length);
 
             // sort using m-th objective value
-            Arrays.sort(sortedIndividuals, new FitnessValueComparator(m));
+            IndexSort.sort(sortedIndices, sortedIndices.length, objectives, numberOfObjectives, m, false);
+
+            int first = sortedIndices[0];
+            int last = sortedIndices[sortedIndices.length - 1];
 
             // so that boundary points are always selected
-            sortedIndividuals[0].setCrowdingDistance(Double.POSITIVE_INFINITY);
-            sortedIndividuals[sortedIndividuals.length - 1].setCrowdingDistance(Double.POSITIVE_INFINITY);
+            crowdingDistances[first] = Double.POSITIVE_INFINITY;
+            crowdingDistances[last] = Double.POSITIVE_INFINITY;
+
+            double min = objectives[first * numberOfObjectives + m];
+            double max = objectives[last * numberOfObjectives + m];
 
             // If minimal and maximal fitness value for this objective are equal,
             // do not change crowding distance 
-            if (sortedIndividuals[0].getFitnessValue(m) != sortedIndividuals[sortedIndividuals.length - 1].getFitnessValue(m))
+            if (min != max)
             {
-                for (int i = 1; i < sortedIndividuals.length - 1; i++)
+                for (int i = 1; i < sortedIndices.length - 1; i++)
                 {
-                    double newCrowdingDistance = sortedIndividuals[i].getCrowdingDistance();
-                    newCrowdingDistance +=
-                            (sortedIndividuals[i + 1].getFitnessValue(m) - sortedIndividuals[i - 1].getFitnessValue(m))
-                            / (sortedIndividuals[sortedIndividuals.length - 1].getFitnessValue(m) - sortedIndividuals[0].getFitnessValue(m));
-
-                    sortedIndividuals[i].setCrowdingDistance(newCrowdingDistance);
+                    crowdingDistances[sortedIndices[i]] +=
+                            (objectives[sortedIndices[i + 1] * numberOfObjectives + m]
+                            - objectives[sortedIndices[i - 1] * numberOfObjectives + m])
+                            / (max - min);
                 }
             }
         }
     }
 
-    /**
-     * Returns the specified individuals sorted in ascending order by the
-     * crowded comparison operator.
-     *
-     * @param individuals individuals to sort
-     * @return individuals sorted in ascending order by the crowded comparison
-     * operator
-     */
-    private static Individual[] sort(LinkedList<Individual> individuals)
-    {
-        if (individuals == null)
-        {
-            throw new IllegalArgumentException("'individuals' must not be null.");
-        }
-
-        Individual[] result = individuals.toArray(new Individual[0]);
-
-        Arrays.sort(result, new CrowdedComparisonOperatorComparator());
-
-        return result;
-    }
-
-    /**
-     * Returns the union of the two collections of individuals.
-     *
-     * @param individuals1 first individuals
-     * @param individuals2 second individuals
-     * @return union of both collections of individuals
-     */
-    private static LinkedList<Individual> union(LinkedList<Individual> individuals1,
-            LinkedList<Individual> individuals2)
-    {
-        if (individuals1 == null)
-        {
-            throw new IllegalArgumentException("'individuals1' must not be null.");
-        }
-        if (individuals2 == null)
-        {
-            throw new IllegalArgumentException("'individuals2' must not be null.");
-        }
-
-        LinkedList<Individual> result = new LinkedList<Individual>(individuals1);
-        result.addAll(individuals2);
-
-        return result;
-    }
-
-    /**
-     * This inner class implements a comparator using the crowded comparison
-     * operator.
-     */
-    private static class CrowdedComparisonOperatorComparator implements Comparator<Individual>
-    {
-
-        /**
-         * Compares the two specified individuals using the crowded comparison
-         * operator. Returns -1, 0 or 1 as the first argument is less than,
-         * equal to, or greater than the second.
-         */
-        public int compare(Individual individual1, Individual individual2)
-        {
-            if (individual1 == null)
-            {
-                throw new IllegalArgumentException("'individual1' must not be null.");
-            }
-            if (individual2 == null)
-            {
-                throw new IllegalArgumentException("'individual2' must not be null.");
-            }
-
-            if (individual1.isCrowdedComparisonOperatorBetter(individual2))
-            {
-                return -1;
-            }
-            if (individual2.isCrowdedComparisonOperatorBetter(individual1))
-            {
-                return 1;
-            }
-
-            return 0;
-        }
-    }
-
     public static JFrame DisplayTimeVsCost(LinkedList<Individual> pop, int fontSize)
     {
         return DisplayData(pop, "Time vs Cost", "Cost", "Time", 2, 0, Color.BLUE, fontSize);
@@ -699,52 +720,4 @@ public class NSGA2
         
         return frame;
     }
-
-    /**
-     * This inner class implements a comparator using the index-th fitness value
-     * of two individuals.
-     */
-    private static class FitnessValueComparator implements Comparator<Individual>
-    {
-
-        private int indexObjective;
-
-        /**
-         * Constructor.
-         *
-         * @param indexObjective objective index
-         */
-        private FitnessValueComparator(int indexObjective)
-        {
-            this.indexObjective = indexObjective;
-        }
-
-        /**
-         * Compares the two specified individuals using their index-th fitness
-         * value. Returns -1, 0 or 1 as the first argument is less than, equal
-         * to, or greater than the second.
-         */
-        public int compare(Individual individual1, Individual individual2)
-        {
-            if (individual1 == null)
-            {
-                throw new IllegalArgumentException("'individual1' must not be null.");
-            }
-            if (individual2 == null)
-            {
-                throw new IllegalArgumentException("'individual2' must not be null.");
-            }
-
-            if (individual1.getFitnessValue(indexObjective) < individual2.getFitnessValue(indexObjective))
-            {
-                return -1;
-            }
-            if (individual1.getFitnessValue(indexObjective) > individual2.getFitnessValue(indexObjective))
-            {
-                return 1;
-            }
-
-            return 0;
-        }
-    }
-}
\ No newline at end of file
+}
@@ -23,6 +23,8 @@ package NSGAII;
 
 
 
+import java.util.concurrent.ExecutorService;
+
 /**
  * This class stores the configuration information for a run of the multi-objective genetic
  * algorithm NSGA-II. 
@@ -39,6 +41,17 @@ public class NSGA2Configuration {
    private double differenceThreshold;
    private int populationSize;
    private int numberOfGenerations;
+   private int offspringSize;
+   
+   private NonDominatedSorter nonDominatedSorter;
+   private ExecutorService evaluationExecutor;
+   private int evaluationParallelism = 1;
+   private FitnessCache fitnessCache;
+   private int incrementalRecomputeInterval = 100;
+   private MultiObjectiveEvaluator multiObjectiveEvaluator;
+   private RandomStreams randomStreams = new RandomStreams();
+   private BatchEvaluator batchEvaluator;
+   private SelectionStrategy selectionStrategy = new BinaryTournamentSelection();
    
    /**
     * Constructor.
@@ -46,7 +59,7 @@ public class NSGA2Configuration {
     * @param fitnessFunctions fitness function for the different objectives
     * @param mutationProbability mutation probability (0 <= . <= 1)
     * @param crossoverProbability crossover probability (0 <= . <= 1)
-    * @param populationSize population size (must be divisible by four)
+    * @param populationSize population size (also the default offspring size)
     * @param numberOfGenerations number of generations of the genetic algorithm
     */
    public NSGA2Configuration(FitnessFunction[] fitnessFunctions,
@@ -67,20 +80,42 @@ public class NSGA2Configuration {
       if (populationSize <= 0) {
          throw new IllegalArgumentException("'populationSize' must be a positive number.");
       }
-      if (populationSize % 4 != 0) {
-         throw new IllegalArgumentException("'populationSize' must be divisible by four.");
-      }
       if (numberOfGenerations <= 0) {
          throw new IllegalArgumentException("'numberOfGenerations' must be a positive number.");
       }
       
       this.fitnessFunctions = fitnessFunctions;
+      multiObjectiveEvaluator = new FitnessFunctionEvaluator(fitnessFunctions);
+      nonDominatedSorter = createNonDominatedSorter(fitnessFunctions.length);
       this.mutationProbability = mutationProbability;
       this.crossoverProbability = crossoverProbability;
       this.populationSize = populationSize;
+      this.offspringSize = populationSize;
       this.numberOfGenerations = numberOfGenerations;
    }
    
+   /**
+    * Creates a copy of this configuration. Fitness functions, sorter, selection strategy, executor
+    * service, cache, evaluators and random streams are shared with the copy.
+    * 
+    * @return copy
+    */
+   NSGA2Configuration copy() {
+      NSGA2Configuration copy = new NSGA2Configuration(fitnessFunctions, mutationProbability,
+            crossoverProbability, differenceThreshold, populationSize, numberOfGenerations);
+      copy.nonDominatedSorter = nonDominatedSorter;
+      copy.evaluationExecutor = evaluationExecutor;
+      copy.evaluationParallelism = evaluationParallelism;
+      copy.fitnessCache = fitnessCache;
+      copy.incrementalRecomputeInterval = incrementalRecomputeInterval;
+      copy.multiObjectiveEvaluator = multiObjectiveEvaluator;
+      copy.randomStreams = randomStreams;
+      copy.batchEvaluator = batchEvaluator;
+      copy.selectionStrategy = selectionStrategy;
+      copy.offspringSize = offspringSize;
+      return copy;
+   }
+   
    /**
     * Gets the fitness function for the index-th objective (0 ... n-1).
     * 
@@ -128,6 +163,32 @@ public class NSGA2Configuration {
       return populationSize;
    }
    
+   /**
+    * Gets the number of offspring made in every generation (lambda of a (mu + lambda) selection
+    * with mu = population size).
+    * 
+    * @return offspring size
+    */
+   public int getOffspringSize() {
+      return offspringSize;
+   }
+   
+   /**
+    * Sets the number of offspring made in every generation. The population and its offspring are
+    * merged and the best population size members survive. By default, the offspring size equals
+    * the population size. An offspring size which is a multiple of the evaluation parallelism (or
+    * of the worker slots of a remote evaluator) keeps all threads busy; it may be odd.
+    * 
+    * @param offspringSize offspring size (>= 1)
+    */
+   public void setOffspringSize(int offspringSize) {
+      if (offspringSize <= 0) {
+         throw new IllegalArgumentException("'offspringSize' must be a positive number.");
+      }
+      
+      this.offspringSize = offspringSize;
+   }
+   
    /**
     * Gets the number of generations of the genetic algorithm.
     * 
@@ -136,4 +197,230 @@ public class NSGA2Configuration {
    public int getNumberOfGenerations() {
       return numberOfGenerations;
    }
+   
+   /**
+    * Gets the algorithm used for the non-dominated sorting of the populations.
+    * 
+    * @return non-dominated sorter
+    */
+   public NonDominatedSorter getNonDominatedSorter() {
+      return nonDominatedSorter;
+   }
+   
+   /**
+    * Sets the algorithm used for the non-dominated sorting of the populations. By default, the
+    * sorter is chosen by the number of objectives: a {@link BiObjectiveNonDominatedSorter} for
+    * two, a {@link TriObjectiveNonDominatedSorter} for three and a
+    * {@link DivideAndConquerNonDominatedSorter} for any other number of objectives.
+    * 
+    * @param nonDominatedSorter non-dominated sorter
+    */
+   public void setNonDominatedSorter(NonDominatedSorter nonDominatedSorter) {
+      if (nonDominatedSorter == null) {
+         throw new IllegalArgumentException("'nonDominatedSorter' must not be null.");
+      }
+      
+      this.nonDominatedSorter = nonDominatedSorter;
+   }
+   
+   /**
+    * Creates the default non-dominated sorter for the specified number of objectives.
+    * 
+    * @param numberOfObjectives number of objectives
+    * @return non-dominated sorter
+    */
+   private static NonDominatedSorter createNonDominatedSorter(int numberOfObjectives) {
+      switch (numberOfObjectives) {
+         case 2:
+            return new BiObjectiveNonDominatedSorter();
+         case 3:
+            return new TriObjectiveNonDominatedSorter();
+         default:
+            return new DivideAndConquerNonDominatedSorter();
+      }
+   }
+   
+   /**
+    * Gets the executor service used for the evaluation of the offspring.
+    * 
+    * @return executor service or <code>null</code> if NSGA-II manages its own threads
+    */
+   public ExecutorService getEvaluationExecutor() {
+      return evaluationExecutor;
+   }
+   
+   /**
+    * Sets the executor service used for the evaluation of the offspring. The executor service is
+    * not shut down by NSGA-II. If no executor service is set, NSGA-II creates a fork/join pool
+    * with {@link #getEvaluationParallelism()} threads for every run if the parallelism is greater
+    * than one.
+    * 
+    * @param evaluationExecutor executor service (<code>null</code> to let NSGA-II manage its own
+    *                           threads)
+    */
+   public void setEvaluationExecutor(ExecutorService evaluationExecutor) {
+      this.evaluationExecutor = evaluationExecutor;
+   }
+   
+   /**
+    * Gets the number of threads used for the evaluation of the offspring.
+    * 
+    * @return evaluation parallelism
+    */
+   public int getEvaluationParallelism() {
+      return evaluationParallelism;
+   }
+   
+   /**
+    * Sets the number of threads used for the evaluation of the offspring. The default value 1
+    * evaluates all individuals sequentially.
+    * 
+    * @param evaluationParallelism evaluation parallelism (>= 1)
+    */
+   public void setEvaluationParallelism(int evaluationParallelism) {
+      if (evaluationParallelism < 1) {
+         throw new IllegalArgumentException("'evaluationParallelism' must be a positive number.");
+      }
+      
+      this.evaluationParallelism = evaluationParallelism;
+   }
+   
+   /**
+    * Gets the fitness cache shared by all individuals.
+    * 
+    * @return fitness cache (<code>null</code> if fitness values are not cached)
+    */
+   public FitnessCache getFitnessCache() {
+      return fitnessCache;
+   }
+   
+   /**
+    * Sets the fitness cache shared by all individuals. By default, no cache is used. A cache must
+    * only be shared by runs whose individuals have the same fitness values for equal genome keys.
+    * The cache only replaces complete evaluations; individuals whose fitness values can be updated
+    * incrementally (see {@link IncrementalFitnessFunction}) are updated without consulting it, so
+    * a run gives the same results with and without a cache.
+    * 
+    * @param fitnessCache fitness cache (<code>null</code> to disable caching)
+    */
+   public void setFitnessCache(FitnessCache fitnessCache) {
+      this.fitnessCache = fitnessCache;
+   }
+   
+   /**
+    * Gets the number of incremental updates of an individual's fitness values (see
+    * {@link IncrementalFitnessFunction}) after which they are evaluated completely again.
+    * 
+    * @return incremental recompute interval
+    */
+   public int getIncrementalRecomputeInterval() {
+      return incrementalRecomputeInterval;
+   }
+   
+   /**
+    * Sets the number of incremental updates of an individual's fitness values after which they are
+    * evaluated completely again to bound floating-point drift. The default value is 100; 0
+    * disables incremental evaluation.
+    * 
+    * @param incrementalRecomputeInterval incremental recompute interval (>= 0)
+    */
+   public void setIncrementalRecomputeInterval(int incrementalRecomputeInterval) {
+      if (incrementalRecomputeInterval < 0) {
+         throw new IllegalArgumentException("'incrementalRecomputeInterval' must not be negative.");
+      }
+      
+      this.incrementalRecomputeInterval = incrementalRecomputeInterval;
+   }
+   
+   /**
+    * Gets the evaluator computing the fitness values of all objectives.
+    * 
+    * @return multi-objective evaluator
+    */
+   public MultiObjectiveEvaluator getMultiObjectiveEvaluator() {
+      return multiObjectiveEvaluator;
+   }
+   
+   /**
+    * Sets the evaluator computing the fitness values of all objectives. By default, the fitness
+    * functions are evaluated one after the other. An evaluator must compute the same values as the
+    * fitness functions, since these are still used for incremental updates (see
+    * {@link IncrementalFitnessFunction}).
+    * 
+    * @param multiObjectiveEvaluator multi-objective evaluator
+    */
+   public void setMultiObjectiveEvaluator(MultiObjectiveEvaluator multiObjectiveEvaluator) {
+      if (multiObjectiveEvaluator == null) {
+         throw new IllegalArgumentException("'multiObjectiveEvaluator' must not be null.");
+      }
+      
+      this.multiObjectiveEvaluator = multiObjectiveEvaluator;
+   }
+   
+   /**
+    * Gets the source of all random numbers of a run.
+    * 
+    * @return random streams
+    */
+   public RandomStreams getRandomStreams() {
+      return randomStreams;
+   }
+   
+   /**
+    * Sets the source of all random numbers of a run. By default, the streams have a random seed;
+    * runs with streams of the same seed and the same start population give the same results,
+    * independent of the evaluation parallelism.
+    * 
+    * @param randomStreams random streams
+    */
+   public void setRandomStreams(RandomStreams randomStreams) {
+      if (randomStreams == null) {
+         throw new IllegalArgumentException("'randomStreams' must not be null.");
+      }
+      
+      this.randomStreams = randomStreams;
+   }
+   
+   /**
+    * Gets the evaluator of the offspring of a generation.
+    * 
+    * @return batch evaluator (<code>null</code> if the offspring is evaluated in this process)
+    */
+   public BatchEvaluator getBatchEvaluator() {
+      return batchEvaluator;
+   }
+   
+   /**
+    * Sets the evaluator of the offspring of a generation, e.g. a {@link RemoteEvaluator}. By
+    * default, the offspring is evaluated in this process using the evaluation executor service and
+    * parallelism.
+    * 
+    * @param batchEvaluator batch evaluator (<code>null</code> for the default)
+    */
+   public void setBatchEvaluator(BatchEvaluator batchEvaluator) {
+      this.batchEvaluator = batchEvaluator;
+   }
+   
+   /**
+    * Gets the mating selection of NSGA-II.
+    * 
+    * @return selection strategy
+    */
+   public SelectionStrategy getSelectionStrategy() {
+      return selectionStrategy;
+   }
+   
+   /**
+    * Sets the mating selection of NSGA-II. By default, the binary tournament selection of the
+    * original NSGA-II ({@link BinaryTournamentSelection}) is used.
+    * 
+    * @param selectionStrategy selection strategy
+    */
+   public void setSelectionStrategy(SelectionStrategy selectionStrategy) {
+      if (selectionStrategy == null) {
+         throw new IllegalArgumentException("'selectionStrategy' must not be null.");
+      }
+      
+      this.selectionStrategy = selectionStrategy;
+   }
 }
\ No newline at end of file
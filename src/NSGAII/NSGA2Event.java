@@ -38,6 +38,7 @@ public class NSGA2Event extends EventObject {
 
    private LinkedList<Individual> bestIndividuals;
    private int numberGeneration;
+   private long numberOfEvaluations;
    
    /**
     * Constructor.
@@ -47,6 +48,19 @@ public class NSGA2Event extends EventObject {
     * @param numberGeneration number of generation
     */
    public NSGA2Event(Object source, LinkedList<Individual> bestIndividuals, int numberGeneration) {
+      this(source, bestIndividuals, numberGeneration, -1);
+   }
+   
+   /**
+    * Constructor.
+    * 
+    * @param source source of this event (NSGA-II instance)
+    * @param bestIndividuals best individuals in this generation (only non-dominated ones)
+    * @param numberGeneration number of generation
+    * @param numberOfEvaluations number of individuals evaluated so far (-1 if unknown)
+    */
+   public NSGA2Event(Object source, LinkedList<Individual> bestIndividuals, int numberGeneration,
+         long numberOfEvaluations) {
       super(source);
       
       if (source == null) {
@@ -61,6 +75,7 @@ public class NSGA2Event extends EventObject {
       
       this.bestIndividuals = bestIndividuals;
       this.numberGeneration = numberGeneration;
+      this.numberOfEvaluations = numberOfEvaluations;
    }
    
    /**
@@ -81,4 +96,14 @@ public class NSGA2Event extends EventObject {
    public int getNumberGeneration() {
       return numberGeneration;
    }
+   
+   /**
+    * Gets the number of individuals evaluated so far, including the start population. A steady-state
+    * run (see {@link SteadyStateNSGA2}) counts one generation per population size evaluations.
+    * 
+    * @return number of evaluations (-1 if unknown)
+    */
+   public long getNumberOfEvaluations() {
+      return numberOfEvaluations;
+   }
 }
\ No newline at end of file
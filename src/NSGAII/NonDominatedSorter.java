@@ -0,0 +1,76 @@
+package NSGAII;
+
+/**
+ * This interface describes a non-dominated sorting algorithm. A sorter assigns every point of a
+ * population its domination rank: points not dominated by any other point get rank 1, points
+ * only dominated by rank 1 points get rank 2, and so on.
+ *
+ * Points are passed as a flat, row-major objective matrix, i.e. the m-th objective value of the
+ * i-th point is stored at <code>objectives[i * numberOfObjectives + m]</code>. All objectives are
+ * <b>minimized</b>. A point having at least one 'NaN' (not a number) objective value never
+ * dominates another point and is dominated by every point without 'NaN', just like
+ * {@link Individual#dominates(Individual)}.
+ */
+public interface NonDominatedSorter
+{
+
+    /** rank of the points a partial sort has not ranked */
+    int UNRANKED = 0;
+
+    /**
+     * Sorts the specified points and stores their ranks (rank >= 1) in <code>ranks</code>.
+     *
+     * @param objectives row-major objective matrix
+     * @param numberOfPoints number of points
+     * @param numberOfObjectives number of objectives
+     * @param ranks array receiving the rank of each point (length >= numberOfPoints)
+     * @return number of domination fronts
+     */
+    int sort(double[] objectives, int numberOfPoints, int numberOfObjectives, int[] ranks);
+
+    /**
+     * Sorts the specified points front by front until at least <code>requiredPoints</code>
+     * points are ranked, e.g. the size of the next population in NSGA-II. The points of the
+     * remaining fronts get the rank {@link #UNRANKED}. The ranks of the ranked points are the
+     * same as those of a complete sort.
+     *
+     * The default implementation sorts all points and unranks the fronts which are not needed;
+     * sorters peeling off the fronts one by one stop early instead.
+     *
+     * @param objectives row-major objective matrix
+     * @param numberOfPoints number of points
+     * @param numberOfObjectives number of objectives
+     * @param ranks array receiving the rank of each point (length >= numberOfPoints)
+     * @param requiredPoints number of points to rank at least
+     * @return number of ranked domination fronts
+     */
+    default int sort(double[] objectives, int numberOfPoints, int numberOfObjectives, int[] ranks,
+            int requiredPoints)
+    {
+        int numberOfFronts = sort(objectives, numberOfPoints, numberOfObjectives, ranks);
+        if (requiredPoints >= numberOfPoints)
+        {
+            return numberOfFronts;
+        }
+
+        int[] frontSizes = new int[numberOfFronts];
+        for (int i = 0; i < numberOfPoints; i++)
+        {
+            frontSizes[ranks[i] - 1]++;
+        }
+        int numberOfRankedFronts = 0;
+        int numberOfRankedPoints = 0;
+        while (numberOfRankedPoints < requiredPoints)
+        {
+            numberOfRankedPoints += frontSizes[numberOfRankedFronts++];
+        }
+        for (int i = 0; i < numberOfPoints; i++)
+        {
+            if (ranks[i] > numberOfRankedFronts)
+            {
+                ranks[i] = UNRANKED;
+            }
+        }
+        return numberOfRankedFronts;
+    }
+}
@@ -0,0 +1,111 @@
+package NSGAII;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Evaluates a batch of individuals by calling {@link Individual#evaluate()} for each of them.
+ * The batch is split into chunks which are executed in parallel on an executor service. Without
+ * an executor service, the individuals are evaluated sequentially in the calling thread.
+ */
+public class ParallelEvaluator implements BatchEvaluator
+{
+
+    private ExecutorService executor;
+    private int parallelism;
+
+    /**
+     * Constructor.
+     *
+     * @param executor executor service used for the evaluation (<code>null</code> for a
+     * sequential evaluation)
+     * @param parallelism number of chunks a batch is split into (>= 1)
+     */
+    public ParallelEvaluator(ExecutorService executor, int parallelism)
+    {
+        if (parallelism < 1)
+        {
+            throw new IllegalArgumentException("'parallelism' must be a positive number.");
+        }
+
+        this.executor = executor;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Evaluates all specified individuals and returns when all evaluations have finished.
+     *
+     * @param individuals individuals to evaluate
+     */
+    @Override
+    public void evaluate(final Individual[] individuals)
+    {
+        if (individuals == null)
+        {
+            throw new IllegalArgumentException("'individuals' must not be null.");
+        }
+
+        int numberOfChunks = Math.min(parallelism, individuals.length);
+        if (executor == null || numberOfChunks <= 1)
+        {
+            evaluate(individuals, 0, individuals.length);
+            return;
+        }
+
+        // several small chunks per thread, so that expensive individuals are balanced out
+        numberOfChunks = Math.min(individuals.length, numberOfChunks * 4);
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(numberOfChunks);
+        for (int chunk = 0; chunk < numberOfChunks; chunk++)
+        {
+            final int from = (int) ((long) individuals.length * chunk / numberOfChunks);
+            final int to = (int) ((long) individuals.length * (chunk + 1) / numberOfChunks);
+            tasks.add(new Callable<Void>()
+            {
+                @Override
+                public Void call()
+                {
+                    evaluate(individuals, from, to);
+                    return null;
+                }
+            });
+        }
+
+        try
+        {
+            for (Future<Void> future : executor.invokeAll(tasks))
+            {
+                future.get();
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Evaluation was interrupted.", e);
+        }
+        catch (ExecutionException e)
+        {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error)
+            {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("Evaluation failed.", cause);
+        }
+    }
+
+    private static void evaluate(Individual[] individuals, int from, int to)
+    {
+        for (int i = from; i < to; i++)
+        {
+            individuals[i].evaluate();
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package NSGAII;
+
+import java.util.Collection;
+import java.util.LinkedList;
+
+/**
+ * A population of individuals stored as struct of arrays. The objective values of all members
+ * are kept in one flat, row-major <code>double[]</code> (the m-th objective value of member i is
+ * stored at <code>i * numberOfObjectives + m</code>), ranks and crowding distances in primitive
+ * arrays. Members are referenced by their int index, so sorting, selection and truncation can
+ * work on primitive data only.
+ *
+ * The objective values are copied from the individuals when they are added, so individuals must
+ * not be changed afterwards.
+ */
+public class Population
+{
+
+    private final int numberOfObjectives;
+    private Individual[] individuals;
+    private double[] objectives;
+    private int[] ranks;
+    private double[] crowdingDistances;
+    private int size;
+
+    /**
+     * Constructor.
+     *
+     * @param numberOfObjectives number of objectives
+     * @param capacity initial capacity
+     */
+    public Population(int numberOfObjectives, int capacity)
+    {
+        if (numberOfObjectives <= 0)
+        {
+            throw new IllegalArgumentException("'numberOfObjectives' must be a positive number.");
+        }
+        if (capacity < 0)
+        {
+            throw new IllegalArgumentException("'capacity' must not be negative.");
+        }
+
+        this.numberOfObjectives = numberOfObjectives;
+        individuals = new Individual[capacity];
+        objectives = new double[capacity * numberOfObjectives];
+        ranks = new int[capacity];
+        crowdingDistances = new double[capacity];
+    }
+
+    /**
+     * Constructor. Creates a population containing the specified individuals.
+     *
+     * @param numberOfObjectives number of objectives
+     * @param individuals individuals
+     */
+    public Population(int numberOfObjectives, Collection<? extends Individual> individuals)
+    {
+        this(numberOfObjectives, individuals == null ? 0 : individuals.size());
+
+        if (individuals == null)
+        {
+            throw new IllegalArgumentException("'individuals' must not be null.");
+        }
+
+        for (Individual individual : individuals)
+        {
+            add(individual);
+        }
+    }
+
+    /**
+     * Adds the specified individual and copies its fitness values. Rank and crowding distance of
+     * the new member are taken from the individual.
+     *
+     * @param individual individual
+     * @return index of the new member
+     */
+    public int add(Individual individual)
+    {
+        if (individual == null)
+        {
+            throw new IllegalArgumentException("'individual' must not be null.");
+        }
+
+        ensureCapacity(size + 1);
+        int row = size * numberOfObjectives;
+        for (int m = 0; m < numberOfObjectives; m++)
+        {
+            objectives[row + m] = individual.getFitnessValue(m);
+        }
+        individuals[size] = individual;
+        ranks[size] = individual.getRank();
+        crowdingDistances[size] = individual.getCrowdingDistance();
+
+        return size++;
+    }
+
+    /**
+     * Adds the index-th member of the specified population including its objective values, rank
+     * and crowding distance.
+     *
+     * @param other other population
+     * @param index index of the member in the other population
+     * @return index of the new member
+     */
+    public int add(Population other, int index)
+    {
+        if (other == null)
+        {
+            throw new IllegalArgumentException("'other' must not be null.");
+        }
+        if (other.numberOfObjectives != numberOfObjectives)
+        {
+            throw new IllegalArgumentException("Both populations must have the same number of objectives.");
+        }
+        if (index < 0 || index >= other.size)
+        {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + other.size);
+        }
+
+        ensureCapacity(size + 1);
+        System.arraycopy(other.objectives, index * numberOfObjectives, objectives, size * numberOfObjectives,
+                numberOfObjectives);
+        individuals[size] = other.individuals[index];
+        ranks[size] = other.ranks[index];
+        crowdingDistances[size] = other.crowdingDistances[index];
+
+        return size++;
+    }
+
+    /**
+     * Returns the union of the two populations.
+     *
+     * @param population1 first population
+     * @param population2 second population
+     * @return union of both populations (members of the first population first)
+     */
+    public static Population union(Population population1, Population population2)
+    {
+        if (population1 == null)
+        {
+            throw new IllegalArgumentException("'population1' must not be null.");
+        }
+        if (population2 == null)
+        {
+            throw new IllegalArgumentException("'population2' must not be null.");
+        }
+        if (population1.numberOfObjectives != population2.numberOfObjectives)
+        {
+            throw new IllegalArgumentException("Both populations must have the same number of objectives.");
+        }
+
+        int m = population1.numberOfObjectives;
+        Population result = new Population(m, population1.size + population2.size);
+        copy(population1, 0, result, 0, population1.size);
+        copy(population2, 0, result, population1.size, population2.size);
+        result.size = population1.size + population2.size;
+
+        return result;
+    }
+
+    private static void copy(Population source, int sourceIndex, Population target, int targetIndex, int length)
+    {
+        int m = source.numberOfObjectives;
+        System.arraycopy(source.individuals, sourceIndex, target.individuals, targetIndex, length);
+        System.arraycopy(source.objectives, sourceIndex * m, target.objectives, targetIndex * m, length * m);
+        System.arraycopy(source.ranks, sourceIndex, target.ranks, targetIndex, length);
+        System.arraycopy(source.crowdingDistances, sourceIndex, target.crowdingDistances, targetIndex, length);
+    }
+
+    private void ensureCapacity(int capacity)
+    {
+        if (capacity <= individuals.length)
+        {
+            return;
+        }
+
+        int newCapacity = Math.max(capacity, individuals.length * 2);
+        Individual[] newIndividuals = new Individual[newCapacity];
+        double[] newObjectives = new double[newCapacity * numberOfObjectives];
+        int[] newRanks = new int[newCapacity];
+        double[] newCrowdingDistances = new double[newCapacity];
+        System.arraycopy(individuals, 0, newIndividuals, 0, size);
+        System.arraycopy(objectives, 0, newObjectives, 0, size * numberOfObjectives);
+        System.arraycopy(ranks, 0, newRanks, 0, size);
+        System.arraycopy(crowdingDistances, 0, newCrowdingDistances, 0, size);
+        individuals = newIndividuals;
+        objectives = newObjectives;
+        ranks = newRanks;
+        crowdingDistances = newCrowdingDistances;
+    }
+
+    /**
+     * Gets the number of members.
+     *
+     * @return number of members
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Gets the number of objectives.
+     *
+     * @return number of objectives
+     */
+    public int getNumberOfObjectives()
+    {
+        return numberOfObjectives;
+    }
+
+    /**
+     * Gets the index-th member.
+     *
+     * @param index index
+     * @return individual
+     */
+    public Individual get(int index)
+    {
+        checkIndex(index);
+        return individuals[index];
+    }
+
+    /**
+     * Gets the objective value of the index-th member for the specified objective.
+     *
+     * @param index index of the member
+     * @param objective index of the objective
+     * @return objective value
+     */
+    public double getObjective(int index, int objective)
+    {
+        checkIndex(index);
+        if (objective < 0 || objective >= numberOfObjectives)
+        {
+            throw new IndexOutOfBoundsException("Objective: " + objective);
+        }
+        return objectives[index * numberOfObjectives + objective];
+    }
+
+    /**
+     * Gets the rank of the index-th member (0 if not ranked yet).
+     *
+     * @param index index
+     * @return rank
+     */
+    public int getRank(int index)
+    {
+        checkIndex(index);
+        return ranks[index];
+    }
+
+    /**
+     * Gets the crowding distance of the index-th member.
+     *
+     * @param index index
+     * @return crowding distance
+     */
+    public double getCrowdingDistance(int index)
+    {
+        checkIndex(index);
+        return crowdingDistances[index];
+    }
+
+    /**
+     * Gets the flat objective matrix. Only the first <code>size() * getNumberOfObjectives()</code>
+     * values are valid. The array is not copied.
+     */
+    double[] objectives()
+    {
+        return objectives;
+    }
+
+    /**
+     * Gets the rank array. Only the first <code>size()</code> values are valid. The array is not
+     * copied.
+     */
+    int[] ranks()
+    {
+        return ranks;
+    }
+
+    /**
+     * Gets the crowding distance array. Only the first <code>size()</code> values are valid. The
+     * array is not copied.
+     */
+    double[] crowdingDistances()
+    {
+        return crowdingDistances;
+    }
+
+    /**
+     * Writes the ranks and crowding distances of all members back to the individuals.
+     */
+    void updateIndividuals()
+    {
+        for (int i = 0; i < size; i++)
+        {
+            if (ranks[i] > 0)
+            {
+                individuals[i].setRank(ranks[i]);
+            }
+            individuals[i].setCrowdingDistance(crowdingDistances[i]);
+        }
+    }
+
+    /**
+     * Returns all members with rank 1.
+     *
+     * @return non-dominated members
+     */
+    public LinkedList<Individual> getNonDominatedIndividuals()
+    {
+        LinkedList<Individual> result = new LinkedList<Individual>();
+        for (int i = 0; i < size; i++)
+        {
+            if (ranks[i] == 1)
+            {
+                result.add(individuals[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns all members as list.
+     *
+     * @return list of all members
+     */
+    public LinkedList<Individual> toLinkedList()
+    {
+        LinkedList<Individual> result = new LinkedList<Individual>();
+        for (int i = 0; i < size; i++)
+        {
+            result.add(individuals[i]);
+        }
+        return result;
+    }
+
+    private void checkIndex(int index)
+    {
+        if (index < 0 || index >= size)
+        {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package NSGAII;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Source of all random numbers of an NSGA-II run. Every stream is derived from one seed, so a run
+ * with the same seed produces the same results.
+ *
+ * {@link #stream(long, long)} returns an independent stream per generation and task (e.g. one per
+ * mating), which does not depend on the thread the task runs on. Code without direct access to
+ * its stream (e.g. {@link Individual#mutate()}) uses {@link #current()}, the stream bound to the
+ * current thread by the engine. Streams are not shared between threads, so drawing random numbers
+ * never synchronizes.
+ */
+public class RandomStreams
+{
+
+    // generation of the streams of threads without a bound stream
+    private static final long UNBOUND = -1;
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final long seed;
+    private final AtomicLong unboundThreads = new AtomicLong();
+    private final ThreadLocal<SplittableRandom> current = new ThreadLocal<SplittableRandom>();
+
+    /**
+     * Constructor with a random seed.
+     */
+    public RandomStreams()
+    {
+        this(new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param seed seed of all streams
+     */
+    public RandomStreams(long seed)
+    {
+        this.seed = seed;
+    }
+
+    /**
+     * Gets the seed of all streams.
+     *
+     * @return seed
+     */
+    public long getSeed()
+    {
+        return seed;
+    }
+
+    /**
+     * Creates the stream of a task. Equal arguments always give a stream with the same sequence.
+     *
+     * @param generation generation (>= 0)
+     * @param task number of the task within the generation
+     * @return new stream
+     */
+    public SplittableRandom stream(long generation, long task)
+    {
+        long z = mix64(seed);
+        z = mix64(z + (generation + 1) * GOLDEN_GAMMA);
+        z = mix64(z + (task + 1) * GOLDEN_GAMMA);
+        return new SplittableRandom(z);
+    }
+
+    /**
+     * Gets the stream bound to the current thread. If none is bound, the thread gets its own
+     * stream; these are numbered in the order the threads first ask for them, so they are only
+     * reproducible for single-threaded code like setting up a start population.
+     *
+     * @return stream of the current thread
+     */
+    public SplittableRandom current()
+    {
+        SplittableRandom random = current.get();
+        if (random == null)
+        {
+            random = stream(UNBOUND, unboundThreads.getAndIncrement());
+            current.set(random);
+        }
+        return random;
+    }
+
+    /**
+     * Binds a stream to the current thread.
+     *
+     * @param random stream (<code>null</code> to unbind the current stream)
+     * @return previously bound stream (<code>null</code> if none)
+     */
+    public SplittableRandom bind(SplittableRandom random)
+    {
+        SplittableRandom previous = current.get();
+        if (random == null)
+        {
+            current.remove();
+        }
+        else
+        {
+            current.set(random);
+        }
+        return previous;
+    }
+
+    /**
+     * Finalizer of the 64-bit MurmurHash3 (variant 13 by David Stafford).
+     */
+    private static long mix64(long z)
+    {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,606 @@
+package NSGAII;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Coordinator evaluating batches of individuals on worker processes ({@link EvaluationWorker})
+ * which connect over TCP. Individuals are sent as genomes of a {@link GenomeCodec}, workers
+ * answer with the fitness values.
+ *
+ * A batch is split into chunks of at most <code>chunkSize</code> individuals. Every worker gets
+ * up to <code>pipelineDepth</code> chunks at a time, so it can start with the next chunk while the
+ * result of the previous one is still on the way. If a worker fails, its unanswered chunks go to
+ * the other workers; without any worker, the remaining chunks are evaluated in this process. A
+ * worker which stays connected but does not answer within the answer timeout while it has chunks
+ * counts as failed, too.
+ * Workers may connect and disconnect at any time. Fitness values cached in this process are not
+ * sent; workers always evaluate individuals completely (not incrementally). Several threads may
+ * evaluate batches at the same time, each call returns as soon as its own batch is done.
+ *
+ * Protocol (all numbers big-endian): a worker sends {@link #MAGIC} and {@link #VERSION}. The
+ * coordinator sends {@link #EVALUATE}, chunk id, number of genomes and every genome as length
+ * followed by its ints, or {@link #SHUTDOWN}. The worker answers an evaluation with chunk id,
+ * number of individuals, number of objectives and the fitness values of all individuals.
+ */
+public class RemoteEvaluator implements BatchEvaluator
+{
+
+    static final int MAGIC = 0x4e534741;
+    static final int VERSION = 1;
+    static final int EVALUATE = 1;
+    static final int SHUTDOWN = 2;
+
+    // time a connecting worker has to identify itself
+    private static final int HANDSHAKE_TIMEOUT = 10000;
+    // interval in which a waiting batch checks whether workers are left
+    private static final long WAIT_INTERVAL = 100;
+
+    private final GenomeCodec codec;
+    private final int chunkSize;
+    private final int pipelineDepth;
+    private final int answerTimeout;
+    private final ServerSocket serverSocket;
+
+    private final List<Connection> connections = new ArrayList<Connection>();
+    private final LinkedBlockingDeque<Chunk> queue = new LinkedBlockingDeque<Chunk>();
+    private int nextChunkId;
+    private volatile boolean closed;
+
+    /**
+     * Constructor. Starts listening for workers, which may take any time to answer.
+     *
+     * @param port TCP port (0 for any free port, see {@link #getPort()})
+     * @param codec codec of the genomes
+     * @param chunkSize maximal number of individuals sent in one message (>= 1)
+     * @param pipelineDepth maximal number of chunks a worker gets at a time (>= 1)
+     * @throws IOException if the port cannot be opened
+     */
+    public RemoteEvaluator(int port, GenomeCodec codec, int chunkSize, int pipelineDepth) throws IOException
+    {
+        this(port, codec, chunkSize, pipelineDepth, 0);
+    }
+
+    /**
+     * Constructor. Starts listening for workers.
+     *
+     * @param port TCP port (0 for any free port, see {@link #getPort()})
+     * @param codec codec of the genomes
+     * @param chunkSize maximal number of individuals sent in one message (>= 1)
+     * @param pipelineDepth maximal number of chunks a worker gets at a time (>= 1)
+     * @param answerTimeout milliseconds a worker with unanswered chunks may stay silent before its
+     * chunks go to other workers (0 for no timeout); a silent worker is detected after one to two
+     * timeouts
+     * @throws IOException if the port cannot be opened
+     */
+    public RemoteEvaluator(int port, GenomeCodec codec, int chunkSize, int pipelineDepth, int answerTimeout)
+            throws IOException
+    {
+        if (codec == null)
+        {
+            throw new IllegalArgumentException("'codec' must not be null.");
+        }
+        if (chunkSize < 1)
+        {
+            throw new IllegalArgumentException("'chunkSize' must be a positive number.");
+        }
+        if (pipelineDepth < 1)
+        {
+            throw new IllegalArgumentException("'pipelineDepth' must be a positive number.");
+        }
+        if (answerTimeout < 0)
+        {
+            throw new IllegalArgumentException("'answerTimeout' must not be negative.");
+        }
+
+        this.codec = codec;
+        this.chunkSize = chunkSize;
+        this.pipelineDepth = pipelineDepth;
+        this.answerTimeout = answerTimeout;
+        serverSocket = new ServerSocket(port);
+
+        Thread acceptor = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                acceptWorkers();
+            }
+        }, "RemoteEvaluator acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * Gets the TCP port workers connect to.
+     *
+     * @return port
+     */
+    public int getPort()
+    {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Gets the number of connected workers.
+     *
+     * @return number of workers
+     */
+    public synchronized int getNumberOfWorkers()
+    {
+        return connections.size();
+    }
+
+    /**
+     * Waits until the specified number of workers is connected.
+     *
+     * @param numberOfWorkers number of workers
+     * @param timeout maximal time to wait in milliseconds
+     * @return <code>true</code> if the workers are connected
+     * @throws InterruptedException if the waiting thread is interrupted
+     */
+    public synchronized boolean awaitWorkers(int numberOfWorkers, long timeout) throws InterruptedException
+    {
+        long end = System.currentTimeMillis() + timeout;
+        while (connections.size() < numberOfWorkers)
+        {
+            long remaining = end - System.currentTimeMillis();
+            if (remaining <= 0)
+            {
+                return false;
+            }
+            wait(remaining);
+        }
+        return true;
+    }
+
+    @Override
+    public void evaluate(Individual[] individuals)
+    {
+        if (individuals == null)
+        {
+            throw new IllegalArgumentException("'individuals' must not be null.");
+        }
+        if (closed)
+        {
+            throw new IllegalStateException("Evaluator is closed.");
+        }
+
+        List<Individual> pending = new ArrayList<Individual>(individuals.length);
+        for (Individual individual : individuals)
+        {
+            if (!individual.evaluateFromCache())
+            {
+                pending.add(individual);
+            }
+        }
+
+        Batch batch = new Batch();
+        synchronized (this)
+        {
+            for (int from = 0; from < pending.size(); from += chunkSize)
+            {
+                int to = Math.min(from + chunkSize, pending.size());
+                Individual[] members = pending.subList(from, to).toArray(new Individual[to - from]);
+                int[][] genomes = new int[members.length][];
+                for (int i = 0; i < members.length; i++)
+                {
+                    genomes[i] = codec.encode(members[i]);
+                }
+                queue.addLast(new Chunk(nextChunkId++, batch, members, genomes));
+                batch.remainingChunks++;
+            }
+        }
+
+        while (true)
+        {
+            Chunk local = null;
+            synchronized (this)
+            {
+                if (batch.remainingChunks == 0)
+                {
+                    return;
+                }
+                if (connections.isEmpty())
+                {
+                    local = queue.pollFirst();
+                }
+                if (local == null)
+                {
+                    try
+                    {
+                        wait(WAIT_INTERVAL);
+                    }
+                    catch (InterruptedException e)
+                    {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("Evaluation was interrupted.", e);
+                    }
+                    continue;
+                }
+            }
+
+            // no workers left
+            for (Individual individual : local.members)
+            {
+                individual.evaluate();
+            }
+            finish(local);
+        }
+    }
+
+    /**
+     * Stops listening, asks all workers to shut down and disconnects them.
+     */
+    public void close()
+    {
+        closed = true;
+        try
+        {
+            serverSocket.close();
+        }
+        catch (IOException e)
+        {
+            // ignore, the socket is closed anyway
+        }
+
+        List<Connection> open;
+        synchronized (this)
+        {
+            open = new ArrayList<Connection>(connections);
+        }
+        for (Connection connection : open)
+        {
+            connection.shutdown();
+        }
+    }
+
+    private void acceptWorkers()
+    {
+        while (!closed)
+        {
+            Socket socket;
+            try
+            {
+                socket = serverSocket.accept();
+            }
+            catch (IOException e)
+            {
+                // server socket closed
+                return;
+            }
+
+            try
+            {
+                socket.setTcpNoDelay(true);
+                socket.setSoTimeout(HANDSHAKE_TIMEOUT);
+                DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                if (in.readInt() != MAGIC || in.readInt() != VERSION)
+                {
+                    throw new IOException("Unknown worker protocol.");
+                }
+                socket.setSoTimeout(answerTimeout);
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+                Connection connection = new Connection(socket, in, out);
+                synchronized (this)
+                {
+                    if (closed)
+                    {
+                        socket.close();
+                        return;
+                    }
+                    connections.add(connection);
+                    notifyAll();
+                }
+                connection.start();
+            }
+            catch (IOException e)
+            {
+                try
+                {
+                    socket.close();
+                }
+                catch (IOException ignored)
+                {
+                    // nothing left to clean up
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts a chunk whose fitness values have been set.
+     */
+    private synchronized void finish(Chunk chunk)
+    {
+        chunk.batch.remainingChunks--;
+        notifyAll();
+    }
+
+    /**
+     * Removes a failed connection and returns its unanswered chunks to the queue.
+     */
+    private synchronized void fail(Connection connection)
+    {
+        if (connection.dead)
+        {
+            return;
+        }
+        connection.dead = true;
+        connections.remove(connection);
+        for (Chunk chunk : connection.inFlight.values())
+        {
+            queue.addFirst(chunk);
+        }
+        connection.inFlight.clear();
+        connection.close();
+        notifyAll();
+    }
+
+    /**
+     * Chunks of one call of {@link #evaluate(Individual[])} which are not answered yet.
+     */
+    private static class Batch
+    {
+
+        // guarded by the evaluator
+        int remainingChunks;
+    }
+
+    /**
+     * Individuals sent in one message.
+     */
+    private static class Chunk
+    {
+
+        final int id;
+        final Batch batch;
+        final Individual[] members;
+        final int[][] genomes;
+
+        Chunk(int id, Batch batch, Individual[] members, int[][] genomes)
+        {
+            this.id = id;
+            this.batch = batch;
+            this.members = members;
+            this.genomes = genomes;
+        }
+    }
+
+    /**
+     * Connection to one worker with a thread sending chunks and one receiving results.
+     */
+    private class Connection
+    {
+
+        private final Socket socket;
+        private final DataInputStream in;
+        private final DataOutputStream out;
+        private final Semaphore permits = new Semaphore(pipelineDepth);
+        // guarded by the evaluator
+        private final Map<Integer, Chunk> inFlight = new HashMap<Integer, Chunk>();
+        // guarded by the evaluator: time of the last answer or of the first chunk sent since
+        private long lastAnswer;
+        private boolean dead;
+        private Thread sender;
+
+        Connection(Socket socket, DataInputStream in, DataOutputStream out)
+        {
+            this.socket = socket;
+            this.in = in;
+            this.out = out;
+        }
+
+        void start()
+        {
+            sender = new Thread(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    send();
+                }
+            }, "RemoteEvaluator sender " + socket.getRemoteSocketAddress());
+            sender.setDaemon(true);
+            Thread receiver = new Thread(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    receive();
+                }
+            }, "RemoteEvaluator receiver " + socket.getRemoteSocketAddress());
+            receiver.setDaemon(true);
+            sender.start();
+            receiver.start();
+        }
+
+        private void send()
+        {
+            try
+            {
+                while (true)
+                {
+                    permits.acquire();
+                    Chunk chunk = queue.takeFirst();
+                    synchronized (RemoteEvaluator.this)
+                    {
+                        if (dead)
+                        {
+                            queue.addFirst(chunk);
+                            return;
+                        }
+                        if (inFlight.isEmpty())
+                        {
+                            lastAnswer = System.nanoTime();
+                        }
+                        inFlight.put(chunk.id, chunk);
+                    }
+
+                    synchronized (out)
+                    {
+                        out.writeInt(EVALUATE);
+                        out.writeInt(chunk.id);
+                        out.writeInt(chunk.genomes.length);
+                        for (int[] genome : chunk.genomes)
+                        {
+                            out.writeInt(genome.length);
+                            for (int gene : genome)
+                            {
+                                out.writeInt(gene);
+                            }
+                        }
+                        out.flush();
+                    }
+                }
+            }
+            catch (InterruptedException e)
+            {
+                // connection failed or evaluator closed
+            }
+            catch (IOException e)
+            {
+                fail(this);
+            }
+        }
+
+        private void receive()
+        {
+            try
+            {
+                while (true)
+                {
+                    if (!awaitMessage())
+                    {
+                        continue;
+                    }
+                    int chunkId = in.readInt();
+                    int count = in.readInt();
+                    int numberOfObjectives = in.readInt();
+                    double[][] values = new double[count][numberOfObjectives];
+                    for (double[] row : values)
+                    {
+                        for (int m = 0; m < numberOfObjectives; m++)
+                        {
+                            row[m] = in.readDouble();
+                        }
+                    }
+
+                    Chunk chunk;
+                    synchronized (RemoteEvaluator.this)
+                    {
+                        if (dead)
+                        {
+                            return;
+                        }
+                        chunk = inFlight.get(chunkId);
+                        if (chunk == null)
+                        {
+                            throw new IOException("Unknown chunk " + chunkId + ".");
+                        }
+                        if (count != chunk.members.length
+                                || numberOfObjectives != chunk.members[0].getNumberOfObjectives())
+                        {
+                            throw new IOException("Result of chunk " + chunkId + " does not match.");
+                        }
+                        inFlight.remove(chunkId);
+                        lastAnswer = System.nanoTime();
+                    }
+                    permits.release();
+
+                    for (int i = 0; i < count; i++)
+                    {
+                        chunk.members[i].setFitnessValues(values[i]);
+                    }
+                    finish(chunk);
+                }
+            }
+            catch (IOException e)
+            {
+                fail(this);
+            }
+        }
+
+        /**
+         * Waits for the first byte of the next message. A read timeout only counts as failure if
+         * the worker has had unanswered chunks for the whole answer timeout; within a message,
+         * every timeout is a failure.
+         *
+         * @return <code>true</code> if a message arrived, <code>false</code> to wait again
+         */
+        private boolean awaitMessage() throws IOException
+        {
+            in.mark(1);
+            try
+            {
+                if (in.read() < 0)
+                {
+                    throw new EOFException("Worker disconnected.");
+                }
+            }
+            catch (SocketTimeoutException e)
+            {
+                synchronized (RemoteEvaluator.this)
+                {
+                    if (inFlight.isEmpty() || System.nanoTime() - lastAnswer < answerTimeout * 1000000L)
+                    {
+                        return false;
+                    }
+                }
+                throw e;
+            }
+            in.reset();
+            return true;
+        }
+
+        void shutdown()
+        {
+            try
+            {
+                synchronized (out)
+                {
+                    out.writeInt(SHUTDOWN);
+                    out.flush();
+                }
+            }
+            catch (IOException e)
+            {
+                // the worker is gone anyway
+            }
+            fail(this);
+        }
+
+        /**
+         * Closes the socket and stops the sender; called with the evaluator locked.
+         */
+        void close()
+        {
+            if (sender != null)
+            {
+                sender.interrupt();
+            }
+            try
+            {
+                socket.close();
+            }
+            catch (IOException e)
+            {
+                // nothing left to clean up
+            }
+        }
+    }
+}
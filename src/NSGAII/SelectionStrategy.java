@@ -0,0 +1,27 @@
+package NSGAII;
+
+import java.util.SplittableRandom;
+
+/**
+ * This interface describes the mating selection of NSGA-II. A strategy selects the parents of the
+ * next offspring from the ranks and crowding distances of the population members and returns them
+ * as mating plan, i.e. member indices of which every two consecutive ones are crossed.
+ *
+ * The random numbers must only be taken from the specified random stream (or streams split off
+ * from it in a fixed order), so the plan only depends on the seed of the run.
+ */
+public interface SelectionStrategy
+{
+
+    /**
+     * Selects the parents of the next offspring.
+     *
+     * @param ranks ranks of the population members (rank >= 1)
+     * @param crowdingDistances crowding distances of the population members
+     * @param size number of population members (>= 1)
+     * @param numberOfParents number of parents to select
+     * @param random random stream of the selection
+     * @return mating plan (member indices of the parents, length numberOfParents)
+     */
+    int[] select(int[] ranks, double[] crowdingDistances, int size, int numberOfParents, SplittableRandom random);
+}
@@ -0,0 +1,153 @@
+package NSGAII;
+
+/**
+ * Helper methods shared by the {@link NonDominatedSorter} implementations.
+ */
+final class SorterSupport
+{
+
+    private SorterSupport()
+    {
+    }
+
+    /**
+     * Checks the arguments of {@link NonDominatedSorter#sort(double[], int, int, int[])}.
+     */
+    static void checkArguments(double[] objectives, int numberOfPoints, int numberOfObjectives,
+            int[] ranks)
+    {
+        if (objectives == null)
+        {
+            throw new IllegalArgumentException("'objectives' must not be null.");
+        }
+        if (ranks == null)
+        {
+            throw new IllegalArgumentException("'ranks' must not be null.");
+        }
+        if (numberOfPoints < 0)
+        {
+            throw new IllegalArgumentException("'numberOfPoints' must not be negative.");
+        }
+        if (numberOfObjectives <= 0)
+        {
+            throw new IllegalArgumentException("'numberOfObjectives' must be a positive number.");
+        }
+        if (objectives.length < numberOfPoints * numberOfObjectives)
+        {
+            throw new IllegalArgumentException("'objectives' is too small.");
+        }
+        if (ranks.length < numberOfPoints)
+        {
+            throw new IllegalArgumentException("'ranks' is too small.");
+        }
+    }
+
+    /**
+     * Returns for every point whether at least one of its objective values is 'NaN'.
+     */
+    static boolean[] findNaNs(double[] objectives, int numberOfPoints, int numberOfObjectives)
+    {
+        boolean[] hasNaN = new boolean[numberOfPoints];
+        for (int i = 0; i < numberOfPoints; i++)
+        {
+            int row = i * numberOfObjectives;
+            for (int m = 0; m < numberOfObjectives; m++)
+            {
+                if (Double.isNaN(objectives[row + m]))
+                {
+                    hasNaN[i] = true;
+                    break;
+                }
+            }
+        }
+        return hasNaN;
+    }
+
+    /**
+     * Compares two points lexicographically by their objective values. Returns a negative
+     * number, zero or a positive number as the first point is less than, equal to, or greater
+     * than the second.
+     */
+    static int compareLexicographically(double[] objectives, int numberOfObjectives, int p, int q)
+    {
+        int rowP = p * numberOfObjectives;
+        int rowQ = q * numberOfObjectives;
+        for (int m = 0; m < numberOfObjectives; m++)
+        {
+            if (objectives[rowP + m] < objectives[rowQ + m])
+            {
+                return -1;
+            }
+            if (objectives[rowP + m] > objectives[rowQ + m])
+            {
+                return 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Sorts the point indices in <code>indices[0 ... length - 1]</code> lexicographically by
+     * their objective values (stable merge sort).
+     */
+    static void sortLexicographically(double[] objectives, int numberOfObjectives, int[] indices,
+            int length)
+    {
+        int[] buffer = new int[length];
+        mergeSort(objectives, numberOfObjectives, indices, buffer, 0, length);
+    }
+
+    private static void mergeSort(double[] objectives, int numberOfObjectives, int[] indices,
+            int[] buffer, int from, int to)
+    {
+        if (to - from < 8)
+        {
+            // insertion sort for small ranges
+            for (int i = from + 1; i < to; i++)
+            {
+                int current = indices[i];
+                int j = i - 1;
+                while (j >= from
+                        && compareLexicographically(objectives, numberOfObjectives, indices[j], current) > 0)
+                {
+                    indices[j + 1] = indices[j];
+                    j--;
+                }
+                indices[j + 1] = current;
+            }
+            return;
+        }
+
+        int middle = (from + to) >>> 1;
+        mergeSort(objectives, numberOfObjectives, indices, buffer, from, middle);
+        mergeSort(objectives, numberOfObjectives, indices, buffer, middle, to);
+        if (compareLexicographically(objectives, numberOfObjectives, indices[middle - 1], indices[middle]) <= 0)
+        {
+            return;
+        }
+
+        System.arraycopy(indices, from, buffer, from, to - from);
+        int i = from;
+        int j = middle;
+        int k = from;
+        while (i < middle && j < to)
+        {
+            if (compareLexicographically(objectives, numberOfObjectives, buffer[j], buffer[i]) < 0)
+            {
+                indices[k++] = buffer[j++];
+            }
+            else
+            {
+                indices[k++] = buffer[i++];
+            }
+        }
+        while (i < middle)
+        {
+            indices[k++] = buffer[i++];
+        }
+        while (j < to)
+        {
+            indices[k++] = buffer[j++];
+        }
+    }
+}
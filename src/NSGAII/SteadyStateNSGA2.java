@@ -0,0 +1,216 @@
+package NSGAII;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Asynchronous steady-state variant of NSGA-II for evaluations of very different cost. Instead of
+ * waiting for a whole generation, every finished offspring is inserted into the population at
+ * once (the worst member is dropped) and a new offspring is submitted, so all evaluation slots
+ * stay busy.
+ *
+ * The run uses the configuration of an NSGA-II instance: the evaluation parallelism is the number
+ * of evaluations running at the same time, and the budget is population size times number of
+ * generations evaluations. The listeners of the NSGA-II instance are informed after every
+ * population size evaluations. The i-th offspring is created with the random streams of
+ * generation i, so a run with one evaluation slot is reproducible; with more slots, the order in
+ * which evaluations finish varies.
+ *
+ * A batch evaluator of the configuration (e.g. a {@link RemoteEvaluator}) gets every offspring as
+ * a batch of one from its evaluation slot, so the evaluation parallelism should match the
+ * capacity of the evaluator, e.g. the number of remote workers.
+ */
+public class SteadyStateNSGA2
+{
+
+    private final NSGA2 nsga2;
+
+    /**
+     * Constructor.
+     *
+     * @param nsga2 NSGA-II instance (configuration and listeners)
+     */
+    public SteadyStateNSGA2(NSGA2 nsga2)
+    {
+        if (nsga2 == null)
+        {
+            throw new IllegalArgumentException("'nsga2' must not be null.");
+        }
+
+        this.nsga2 = nsga2;
+    }
+
+    /**
+     * Runs the steady-state NSGA-II algorithm.
+     *
+     * @param startPopulation start population (population size as in configuration!)
+     * @return best individuals after the run (only non-dominated ones => rank 1)
+     */
+    public Population evolve(Population startPopulation)
+    {
+        nsga2.checkStartPopulation(startPopulation);
+
+        NSGA2Configuration conf = nsga2.getNSGA2Configuration();
+        int size = conf.getPopulationSize();
+        long budget = (long) size * conf.getNumberOfGenerations();
+        int slots = conf.getEvaluationParallelism();
+
+        IncrementalFronts population = new IncrementalFronts(conf.getNumberOfObjectives());
+        for (int i = 0; i < startPopulation.size(); i++)
+        {
+            population.add(startPopulation.get(i));
+        }
+        long evaluations = 0;
+        nsga2.fireNSGA2Event(population.getFront(1), 0, size);
+
+        final BatchEvaluator evaluator = conf.getBatchEvaluator();
+        ExecutorService executor = conf.getEvaluationExecutor();
+        ForkJoinPool ownPool = null;
+        if (executor == null && slots > 1)
+        {
+            ownPool = new ForkJoinPool(slots);
+            executor = ownPool;
+        }
+
+        try
+        {
+            ExecutorCompletionService<Individual> completion = executor == null ? null
+                    : new ExecutorCompletionService<Individual>(executor);
+            long submitted = 0;
+            int running = 0;
+            while (evaluations < budget)
+            {
+                Individual child;
+                if (completion == null)
+                {
+                    child = makeOffspring(population, ++submitted);
+                    evaluate(evaluator, child);
+                }
+                else
+                {
+                    // keep all slots busy
+                    while (running < slots && submitted < budget)
+                    {
+                        final Individual offspring = makeOffspring(population, ++submitted);
+                        completion.submit(new Callable<Individual>()
+                        {
+                            @Override
+                            public Individual call()
+                            {
+                                evaluate(evaluator, offspring);
+                                return offspring;
+                            }
+                        });
+                        running++;
+                    }
+                    child = completion.take().get();
+                    running--;
+                }
+
+                // only the fronts affected by the offspring and the dropped member are updated
+                population.add(child);
+                population.removeWorst();
+                evaluations++;
+                if (evaluations % size == 0)
+                {
+                    nsga2.fireNSGA2Event(population.getFront(1), (int) (evaluations / size),
+                            size + evaluations);
+                }
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Evolution was interrupted.", e);
+        }
+        catch (ExecutionException e)
+        {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error)
+            {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("Evaluation failed.", cause);
+        }
+        finally
+        {
+            if (ownPool != null)
+            {
+                ownPool.shutdownNow();
+            }
+        }
+
+        // only return non-dominated individuals (=> first frontier)
+        return new Population(conf.getNumberOfObjectives(), population.toPopulation().getNonDominatedIndividuals());
+    }
+
+    /**
+     * Evaluates an offspring on the batch evaluator of the configuration, if any, as a batch of
+     * one.
+     */
+    private static void evaluate(BatchEvaluator evaluator, Individual offspring)
+    {
+        if (evaluator == null)
+        {
+            offspring.evaluate();
+        }
+        else
+        {
+            evaluator.evaluate(new Individual[] { offspring });
+        }
+    }
+
+    /**
+     * Creates the specified offspring by binary tournament selection, crossover and mutation.
+     *
+     * @param population population
+     * @param number number of the offspring
+     * @return unevaluated offspring
+     */
+    private Individual makeOffspring(IncrementalFronts population, long number)
+    {
+        RandomStreams streams = nsga2.getNSGA2Configuration().getRandomStreams();
+        SplittableRandom random = streams.stream(number, 0);
+        int size = population.size();
+
+        Individual parent1 = binaryTournament(random, population, random.nextInt(size), random.nextInt(size));
+        Individual parent2 = binaryTournament(random, population, random.nextInt(size), random.nextInt(size));
+
+        Individual child1 = (Individual) parent1.clone();
+        Individual child2 = (Individual) parent2.clone();
+        SplittableRandom unbound = streams.bind(streams.stream(number, 1));
+        try
+        {
+            child1.crossover(child2);
+            child1.mutate();
+        }
+        finally
+        {
+            streams.bind(unbound);
+        }
+        return child1;
+    }
+
+    /**
+     * Executes a binary tournament with the crowded comparison operator between two members.
+     * Only the crowding distances of the fronts of the two members are computed.
+     */
+    private static Individual binaryTournament(SplittableRandom random, IncrementalFronts population, int index1,
+            int index2)
+    {
+        Individual individual1 = population.get(index1);
+        Individual individual2 = population.get(index2);
+        int[] ranks = { population.getRank(individual1), population.getRank(individual2) };
+        double[] crowdingDistances = { population.getCrowdingDistance(individual1),
+            population.getCrowdingDistance(individual2) };
+        return NSGA2.binaryTournament(random, ranks, crowdingDistances, 0, 1) == 0 ? individual1 : individual2;
+    }
+}
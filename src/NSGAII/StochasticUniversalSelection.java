@@ -0,0 +1,72 @@
+package NSGAII;
+
+import java.util.SplittableRandom;
+
+/**
+ * Stochastic universal sampling over linear ranking weights. The members are ordered by the
+ * crowded comparison operator and the i-th best of N members gets the weight N - i; the parents
+ * are then picked by equally spaced pointers with one random offset, so every member is selected
+ * within one of its expected number of times. The plan is shuffled afterwards, so the mates of a
+ * parent are random.
+ */
+public class StochasticUniversalSelection implements SelectionStrategy
+{
+
+    @Override
+    public int[] select(int[] ranks, double[] crowdingDistances, int size, int numberOfParents,
+            SplittableRandom random)
+    {
+        if (size < 1)
+        {
+            throw new IllegalArgumentException("'size' must be a positive number.");
+        }
+        if (numberOfParents < 0)
+        {
+            throw new IllegalArgumentException("'numberOfParents' must not be negative.");
+        }
+
+        // crowded comparison order: rank ascending, equal ranks by crowding distance descending
+        int[] order = new int[size];
+        double[] rankKeys = new double[size];
+        for (int i = 0; i < size; i++)
+        {
+            order[i] = i;
+            rankKeys[i] = ranks[i];
+        }
+        IndexSort.sort(order, size, crowdingDistances, 1, 0, true);
+        IndexSort.sort(order, size, rankKeys, 1, 0, false);
+
+        int[] parents = new int[numberOfParents];
+        if (numberOfParents == 0)
+        {
+            return parents;
+        }
+
+        // total weight N + (N - 1) + ... + 1
+        double totalWeight = (double) size * (size + 1) / 2;
+        double spacing = totalWeight / numberOfParents;
+        double pointer = random.nextDouble() * spacing;
+        double cumulativeWeight = size;
+        int position = 0;
+        for (int i = 0; i < numberOfParents; i++)
+        {
+            while (pointer >= cumulativeWeight && position < size - 1)
+            {
+                position++;
+                cumulativeWeight += size - position;
+            }
+            parents[i] = order[position];
+            pointer += spacing;
+        }
+
+        for (int i = numberOfParents - 1; i > 0; i--)
+        {
+            int j = random.nextInt(i + 1);
+            int temp = parents[i];
+            parents[i] = parents[j];
+            parents[j] = temp;
+        }
+
+        return parents;
+    }
+}
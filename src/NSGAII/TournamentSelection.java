@@ -0,0 +1,164 @@
+package NSGAII;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * k-ary tournament selection with the crowded comparison operator. Every parent is the best of k
+ * members drawn with replacement; ties are won by the member drawn first. Larger tournaments
+ * increase the selection pressure.
+ *
+ * The plan is filled in chunks, each with its own random stream split off from the selection
+ * stream in chunk order, so the plan does not depend on whether the chunks run on a fork/join
+ * pool or on the calling thread.
+ */
+public class TournamentSelection implements SelectionStrategy
+{
+
+    // number of parents selected by one task
+    private static final int CHUNK_SIZE = 256;
+
+    private final int tournamentSize;
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructor. The tournaments run on the calling thread.
+     *
+     * @param tournamentSize number of members per tournament (>= 1)
+     */
+    public TournamentSelection(int tournamentSize)
+    {
+        if (tournamentSize < 1)
+        {
+            throw new IllegalArgumentException("'tournamentSize' must be a positive number.");
+        }
+
+        this.tournamentSize = tournamentSize;
+        this.pool = null;
+    }
+
+    /**
+     * Constructor. The tournaments run in parallel chunks.
+     *
+     * @param tournamentSize number of members per tournament (>= 1)
+     * @param pool fork/join pool running the chunks
+     */
+    public TournamentSelection(int tournamentSize, ForkJoinPool pool)
+    {
+        if (tournamentSize < 1)
+        {
+            throw new IllegalArgumentException("'tournamentSize' must be a positive number.");
+        }
+        if (pool == null)
+        {
+            throw new IllegalArgumentException("'pool' must not be null.");
+        }
+
+        this.tournamentSize = tournamentSize;
+        this.pool = pool;
+    }
+
+    /**
+     * Gets the number of members per tournament.
+     *
+     * @return tournament size
+     */
+    public int getTournamentSize()
+    {
+        return tournamentSize;
+    }
+
+    @Override
+    public int[] select(int[] ranks, double[] crowdingDistances, int size, int numberOfParents,
+            SplittableRandom random)
+    {
+        if (size < 1)
+        {
+            throw new IllegalArgumentException("'size' must be a positive number.");
+        }
+        if (numberOfParents < 0)
+        {
+            throw new IllegalArgumentException("'numberOfParents' must not be negative.");
+        }
+
+        int[] parents = new int[numberOfParents];
+        int numberOfChunks = (numberOfParents + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        final Chunk[] chunks = new Chunk[numberOfChunks];
+        for (int c = 0; c < numberOfChunks; c++)
+        {
+            chunks[c] = new Chunk(ranks, crowdingDistances, size, parents, c * CHUNK_SIZE,
+                    Math.min((c + 1) * CHUNK_SIZE, numberOfParents), random.split());
+        }
+
+        if (pool == null || numberOfChunks < 2)
+        {
+            for (Chunk chunk : chunks)
+            {
+                chunk.compute();
+            }
+        }
+        else
+        {
+            pool.invoke(new RecursiveAction()
+            {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected void compute()
+                {
+                    invokeAll(chunks);
+                }
+            });
+        }
+
+        return parents;
+    }
+
+    /**
+     * Tournaments of the parents <code>from ... to - 1</code>.
+     */
+    private class Chunk extends RecursiveAction
+    {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] ranks;
+        private final double[] crowdingDistances;
+        private final int size;
+        private final int[] parents;
+        private final int from;
+        private final int to;
+        private final SplittableRandom random;
+
+        Chunk(int[] ranks, double[] crowdingDistances, int size, int[] parents, int from, int to,
+                SplittableRandom random)
+        {
+            this.ranks = ranks;
+            this.crowdingDistances = crowdingDistances;
+            this.size = size;
+            this.parents = parents;
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        @Override
+        protected void compute()
+        {
+            for (int i = from; i < to; i++)
+            {
+                int winner = random.nextInt(size);
+                for (int k = 1; k < tournamentSize; k++)
+                {
+                    int contestant = random.nextInt(size);
+                    if (NSGA2.isCrowdedComparisonOperatorBetter(ranks, crowdingDistances, contestant, winner))
+                    {
+                        winner = contestant;
+                    }
+                }
+                parents[i] = winner;
+            }
+        }
+    }
+}
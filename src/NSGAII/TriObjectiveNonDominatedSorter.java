@@ -0,0 +1,110 @@
+package NSGAII;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Non-dominated sort for exactly three objectives in O(N log^2 N). The points are swept in
+ * lexicographic order, so every point can only be dominated by points swept before it, and only
+ * the second and third objective have to be compared. Every front keeps the staircase of its
+ * points in these two objectives in a balanced tree (second objective ascending, third objective
+ * descending); a point is dominated by a front if and only if the stair below its second
+ * objective value is not higher than its third one. Its front is found by a binary search over
+ * the fronts, since a point dominated by a front is dominated by all fronts before it.
+ */
+public class TriObjectiveNonDominatedSorter implements NonDominatedSorter
+{
+
+    @Override
+    public int sort(double[] objectives, int numberOfPoints, int numberOfObjectives, int[] ranks)
+    {
+        SorterSupport.checkArguments(objectives, numberOfPoints, numberOfObjectives, ranks);
+        if (numberOfObjectives != 3)
+        {
+            throw new IllegalArgumentException("Only points with three objectives can be sorted.");
+        }
+
+        if (numberOfPoints == 0)
+        {
+            return 0;
+        }
+
+        // points with 'NaN' are dominated by all other points and are ranked last
+        boolean[] hasNaN = SorterSupport.findNaNs(objectives, numberOfPoints, 3);
+        int[] order = new int[numberOfPoints];
+        int numberOfValidPoints = 0;
+        for (int i = 0; i < numberOfPoints; i++)
+        {
+            if (!hasNaN[i])
+            {
+                order[numberOfValidPoints++] = i;
+            }
+        }
+
+        SorterSupport.sortLexicographically(objectives, 3, order, numberOfValidPoints);
+
+        ArrayList<TreeMap<Double, Double>> stairs = new ArrayList<TreeMap<Double, Double>>();
+        for (int i = 0; i < numberOfValidPoints; i++)
+        {
+            int p = order[i];
+            int q = i > 0 ? order[i - 1] : -1;
+            if (q >= 0 && objectives[3 * p] == objectives[3 * q] && objectives[3 * p + 1] == objectives[3 * q + 1]
+                    && objectives[3 * p + 2] == objectives[3 * q + 2])
+            {
+                // equal points share the same rank
+                ranks[p] = ranks[q];
+                continue;
+            }
+
+            // + 0.0 turns -0.0 into 0.0, which the tree would order differently
+            double y = objectives[3 * p + 1] + 0.0;
+            double z = objectives[3 * p + 2] + 0.0;
+            int low = 0;
+            int high = stairs.size();
+            while (low < high)
+            {
+                int middle = (low + high) >>> 1;
+                Map.Entry<Double, Double> stair = stairs.get(middle).floorEntry(y);
+                if (stair != null && stair.getValue() <= z)
+                {
+                    low = middle + 1;
+                }
+                else
+                {
+                    high = middle;
+                }
+            }
+            if (low == stairs.size())
+            {
+                stairs.add(new TreeMap<Double, Double>());
+            }
+
+            // remove the stairs the new point covers
+            TreeMap<Double, Double> staircase = stairs.get(low);
+            Iterator<Double> covered = staircase.tailMap(y, true).values().iterator();
+            while (covered.hasNext() && covered.next() >= z)
+            {
+                covered.remove();
+            }
+            staircase.put(y, z);
+            ranks[p] = low + 1;
+        }
+
+        int numberOfFronts = stairs.size();
+        if (numberOfValidPoints < numberOfPoints)
+        {
+            numberOfFronts++;
+            for (int i = 0; i < numberOfPoints; i++)
+            {
+                if (hasNaN[i])
+                {
+                    ranks[i] = numberOfFronts;
+                }
+            }
+        }
+
+        return numberOfFronts;
+    }
+}
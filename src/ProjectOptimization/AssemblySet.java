@@ -10,6 +10,7 @@ import java.util.HashMap;
 public class AssemblySet 
 {
     private HashMap<String, ArrayList<Assembly>> optionSet;
+    private CompiledCatalog catalog;
 
     public HashMap<String, ArrayList<Assembly>> getOptionSet()
     {
@@ -21,6 +22,17 @@ public class AssemblySet
         optionSet = AssemblyDataReader.ReadXml(fileName);
     }
     
+    /**
+     * Returns the compiled catalog of this set, built on first use. The
+     * option set must not be changed afterwards.
+     */
+    public synchronized CompiledCatalog getCatalog()
+    {
+        if (catalog == null)
+            catalog = new CompiledCatalog(this);
+        return catalog;
+    }
+
     public int size()
     {
         return optionSet.size();
@@ -0,0 +1,213 @@
+package ProjectOptimization;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable, int-indexed view of an AssemblySet. Every component gets an
+ * ordinal and every alternative of a component an index, so a project can be
+ * stored as an int[] of alternative indices (one per component ordinal).
+ *
+ * Cost, CO2 and duration of all alternatives are copied into flat arrays
+ * indexed by a global alternative id (getOffset(component) + index), so
+ * fitness functions and the duration engine can run on primitive data
+ * without touching Assembly objects. Later changes of the Assembly objects
+ * are not reflected.
+ *
+ * Components are numbered in the iteration order of a HashMap filled in
+ * option set order, i.e. the order in which IndividualProject has always
+ * iterated its assemblies, so gene sequences and one-point crossover keep
+ * their meaning.
+ */
+public class CompiledCatalog
+{
+
+    private final String[] components;
+    private final Map<String, Integer> componentIds;
+    private final Assembly[][] alternatives;
+    private final int[] offsets;
+    private final String[] names;
+    private final Map<String, Integer> alternativeIds;
+    private final double[] cost;
+    private final double[] co2;
+    private final double[] duration;
+
+    public CompiledCatalog(AssemblySet aSet)
+    {
+        HashMap<String, ArrayList<Assembly>> options = aSet.getOptionSet();
+
+        // same iteration order as a project's component ==> assembly map
+        HashMap<String, Assembly> order = new HashMap<String, Assembly>();
+        for (String component : options.keySet())
+            order.put(component, null);
+
+        int n = order.size();
+        components = new String[n];
+        componentIds = new HashMap<String, Integer>();
+        alternatives = new Assembly[n][];
+        int c = 0;
+        for (String component : order.keySet())
+        {
+            components[c] = component;
+            componentIds.put(component, c);
+            ArrayList<Assembly> assems = options.get(component);
+            alternatives[c] = assems.toArray(new Assembly[assems.size()]);
+            c++;
+        }
+
+        offsets = new int[n + 1];
+        for (c = 0; c < n; c++)
+            offsets[c + 1] = offsets[c] + alternatives[c].length;
+        int total = offsets[n];
+        names = new String[total];
+        alternativeIds = new HashMap<String, Integer>();
+        cost = new double[total];
+        co2 = new double[total];
+        duration = new double[total];
+        for (c = 0; c < n; c++)
+        {
+            for (int a = 0; a < alternatives[c].length; a++)
+            {
+                int id = offsets[c] + a;
+                Assembly assembly = alternatives[c][a];
+                names[id] = assembly.getName();
+                String key = alternativeKey(c, assembly.getName());
+                if (!alternativeIds.containsKey(key))
+                    alternativeIds.put(key, id);
+                cost[id] = assembly.getCost();
+                co2[id] = assembly.getCo2();
+                duration[id] = assembly.getDuration();
+            }
+        }
+    }
+
+    private String alternativeKey(int component, String name)
+    {
+        return components[component] + '\u0000' + name;
+    }
+
+    public int getNumberOfComponents()
+    {
+        return components.length;
+    }
+
+    public String getComponent(int component)
+    {
+        return components[component];
+    }
+
+    /**
+     * Returns the ordinal of a component or -1 if it is not in the catalog.
+     */
+    public int indexOf(String component)
+    {
+        Integer id = componentIds.get(component);
+        return id == null ? -1 : id;
+    }
+
+    public int getNumberOfAlternatives(int component)
+    {
+        return alternatives[component].length;
+    }
+
+    public Assembly getAlternative(int component, int alternative)
+    {
+        return alternatives[component][alternative];
+    }
+
+    /**
+     * Returns the index of an assembly among the alternatives of a component
+     * or -1 if it is not an alternative of the component.
+     */
+    public int indexOf(int component, Assembly assembly)
+    {
+        Assembly[] alts = alternatives[component];
+        for (int a = 0; a < alts.length; a++)
+            if (alts[a] == assembly)
+                return a;
+        for (int a = 0; a < alts.length; a++)
+            if (alts[a].equals(assembly))
+                return a;
+        return -1;
+    }
+
+    /**
+     * Returns the global id of the first alternative of a component. The
+     * alternatives of component c have the ids getOffset(c) to
+     * getOffset(c + 1) - 1.
+     */
+    public int getOffset(int component)
+    {
+        return offsets[component];
+    }
+
+    /**
+     * Total number of alternatives of all components.
+     */
+    public int getNumberOfAlternatives()
+    {
+        return names.length;
+    }
+
+    public String getName(int id)
+    {
+        return names[id];
+    }
+
+    /**
+     * Returns the global id of the alternative of a component with the given
+     * name or -1 if there is none.
+     */
+    public int getAlternativeId(int component, String name)
+    {
+        Integer id = alternativeIds.get(alternativeKey(component, name));
+        return id == null ? -1 : id;
+    }
+
+    public double getCost(int id)
+    {
+        return cost[id];
+    }
+
+    public double getCo2(int id)
+    {
+        return co2[id];
+    }
+
+    public double getDuration(int id)
+    {
+        return duration[id];
+    }
+
+    /**
+     * Sums the cost of the selected alternatives.
+     *
+     * @param genes index of the selected alternative per component (-1 if
+     * none)
+     */
+    public double getTotalCost(int[] genes)
+    {
+        return sum(cost, genes);
+    }
+
+    /**
+     * Sums the CO2 of the selected alternatives.
+     *
+     * @param genes index of the selected alternative per component (-1 if
+     * none)
+     */
+    public double getTotalCo2(int[] genes)
+    {
+        return sum(co2, genes);
+    }
+
+    private double sum(double[] values, int[] genes)
+    {
+        double total = 0.0;
+        for (int c = 0; c < genes.length; c++)
+            if (genes[c] >= 0)
+                total += values[offsets[c] + genes[c]];
+        return total;
+    }
+}
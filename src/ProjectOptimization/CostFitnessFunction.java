@@ -2,11 +2,10 @@ package ProjectOptimization;
 
 import IDF.EnergySimParametricOptionReader;
 import IDF.NoEnergyResultFoundException;
-import NSGAII.FitnessFunction;
+import NSGAII.IncrementalFitnessFunction;
 import NSGAII.Individual;
-import java.util.Map;
 
-public class CostFitnessFunction implements FitnessFunction
+public class CostFitnessFunction implements IncrementalFitnessFunction
 {
 
     @Override
@@ -23,10 +22,22 @@ public class CostFitnessFunction implements FitnessFunction
 
         IndividualProject projIndv = (IndividualProject) indv;
 
-        double cost = 0.0;
-        for (Map.Entry<String, Assembly> entry : projIndv.getCurrentAssemblies().entrySet())
-            cost += entry.getValue().getCost();
+        double cost = projIndv.getTotalCost();
 
         return cost;
     }
+
+    /**
+     * Difference of the cost of the old and the new alternative of a
+     * component.
+     */
+    @Override
+    public double getDelta(Individual indv, int gene, int oldAllele, int newAllele)
+    {
+        CompiledCatalog catalog = ((IndividualProject) indv).getCatalog();
+        int offset = catalog.getOffset(gene);
+        double oldValue = oldAllele < 0 ? 0 : catalog.getCost(offset + oldAllele);
+        double newValue = newAllele < 0 ? 0 : catalog.getCost(offset + newAllele);
+        return newValue - oldValue;
+    }
 }
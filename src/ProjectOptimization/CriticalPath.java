@@ -0,0 +1,343 @@
+package ProjectOptimization;
+
+import java.util.Arrays;
+
+/**
+ * Dynamic longest-path structure over a PrecedenceGraph. For every vertex it
+ * keeps the earliest start (longest path from START to the vertex) and the
+ * tail (longest path from the end of the vertex to END), so the project
+ * duration, latest finish times, floats and the critical components are
+ * available without a full pass.
+ *
+ * Duration changes are recorded by setDuration and applied lazily. Heads are
+ * then recomputed only in the downstream cone and tails only in the upstream
+ * cone of the changed components, in topological order. Propagation stops at
+ * every vertex whose value does not change, so a component with slack whose
+ * change is absorbed by its float only touches its direct neighbours. If a
+ * large part of the graph has changed (e.g. after crossover), everything is
+ * recomputed in two linear passes instead.
+ *
+ * Instances are not thread safe; every individual owns its own copy.
+ */
+public class CriticalPath
+{
+
+    private static final double EPSILON = 1e-9;
+    private static final double UNREACHABLE = Double.NEGATIVE_INFINITY;
+
+    private final PrecedenceGraph graph;
+    private final double[] durations;
+    private final double[] heads;
+    private final double[] tails;
+
+    // components changed since the last update
+    private final boolean[] changed;
+    private final int[] changes;
+    private int numberOfChanges;
+    private boolean recomputeAll;
+
+    // scratch space of the propagation, allocated on first use
+    private int[] heap;
+    private boolean[] queued;
+
+    /**
+     * Creates the critical path of the graph with all durations set to 0.
+     */
+    public CriticalPath(PrecedenceGraph graph)
+    {
+        if (graph == null)
+            throw new IllegalArgumentException("'graph' must not be null.");
+
+        this.graph = graph;
+        int n = graph.size();
+        durations = new double[n];
+        heads = new double[n];
+        tails = new double[n];
+        changed = new boolean[n];
+        changes = new int[n];
+        recomputeAll = true;
+    }
+
+    /**
+     * Copy constructor. Pending changes of the original are applied first.
+     */
+    public CriticalPath(CriticalPath original)
+    {
+        original.update();
+
+        graph = original.graph;
+        durations = original.durations.clone();
+        heads = original.heads.clone();
+        tails = original.tails.clone();
+        changed = new boolean[durations.length];
+        changes = new int[durations.length];
+    }
+
+    public PrecedenceGraph getGraph()
+    {
+        return graph;
+    }
+
+    /**
+     * Sets the duration of a component. The change is propagated on the next
+     * query.
+     *
+     * @param vertex vertex id of the component
+     * @param duration new duration
+     */
+    public void setDuration(int vertex, double duration)
+    {
+        if (vertex == PrecedenceGraph.START || vertex == PrecedenceGraph.END)
+            throw new IllegalArgumentException("Duration of START and END is fixed.");
+        if (durations[vertex] == duration)
+            return;
+
+        durations[vertex] = duration;
+        if (recomputeAll || changed[vertex])
+            return;
+
+        // once a quarter of the graph has changed, two full passes are cheaper
+        if (numberOfChanges >= durations.length / 4)
+        {
+            clearChanges();
+            recomputeAll = true;
+            return;
+        }
+        changed[vertex] = true;
+        changes[numberOfChanges++] = vertex;
+    }
+
+    public double getDuration(int vertex)
+    {
+        return durations[vertex];
+    }
+
+    /**
+     * Returns the project duration, 0 if END is unreachable.
+     */
+    public double getProjectDuration()
+    {
+        update();
+        return heads[PrecedenceGraph.END] == UNREACHABLE ? 0 : heads[PrecedenceGraph.END];
+    }
+
+    public double getEarliestStart(int vertex)
+    {
+        update();
+        return heads[vertex];
+    }
+
+    public double getEarliestFinish(int vertex)
+    {
+        update();
+        return heads[vertex] + durations[vertex];
+    }
+
+    public double getLatestFinish(int vertex)
+    {
+        update();
+        return getProjectDuration() - tails[vertex];
+    }
+
+    public double getLatestStart(int vertex)
+    {
+        return getLatestFinish(vertex) - durations[vertex];
+    }
+
+    /**
+     * Returns the total float of a component, i.e. how much its duration can
+     * grow without delaying the project. Components which are not on a path
+     * from START to END have an infinite float.
+     */
+    public double getTotalFloat(int vertex)
+    {
+        update();
+        if (heads[vertex] == UNREACHABLE || tails[vertex] == UNREACHABLE)
+            return Double.POSITIVE_INFINITY;
+        return getProjectDuration() - (heads[vertex] + durations[vertex] + tails[vertex]);
+    }
+
+    public boolean isCritical(int vertex)
+    {
+        return getTotalFloat(vertex) <= EPSILON;
+    }
+
+    /**
+     * Applies all pending duration changes.
+     */
+    public void update()
+    {
+        if (recomputeAll)
+        {
+            recompute();
+            recomputeAll = false;
+        }
+        else if (numberOfChanges > 0)
+        {
+            propagate();
+            clearChanges();
+        }
+    }
+
+    private void clearChanges()
+    {
+        for (int i = 0; i < numberOfChanges; i++)
+            changed[changes[i]] = false;
+        numberOfChanges = 0;
+    }
+
+    private void recompute()
+    {
+        int[] order = graph.getTopologicalOrder();
+
+        Arrays.fill(heads, UNREACHABLE);
+        heads[PrecedenceGraph.START] = 0;
+        for (int i = 0; i < order.length; i++)
+        {
+            int v = order[i];
+            if (v != PrecedenceGraph.START)
+                heads[v] = computeHead(v);
+        }
+
+        Arrays.fill(tails, UNREACHABLE);
+        tails[PrecedenceGraph.END] = 0;
+        for (int i = order.length - 1; i >= 0; i--)
+        {
+            int v = order[i];
+            if (v != PrecedenceGraph.END)
+                tails[v] = computeTail(v);
+        }
+    }
+
+    private double computeHead(int vertex)
+    {
+        int[] offsets = graph.getPredecessorOffsets();
+        int[] predecessors = graph.getPredecessors();
+        double head = UNREACHABLE;
+        for (int e = offsets[vertex]; e < offsets[vertex + 1]; e++)
+        {
+            int p = predecessors[e];
+            if (heads[p] != UNREACHABLE && heads[p] + durations[p] > head)
+                head = heads[p] + durations[p];
+        }
+        return head;
+    }
+
+    private double computeTail(int vertex)
+    {
+        int[] offsets = graph.getSuccessorOffsets();
+        int[] successors = graph.getSuccessors();
+        double tail = UNREACHABLE;
+        for (int e = offsets[vertex]; e < offsets[vertex + 1]; e++)
+        {
+            int s = successors[e];
+            if (tails[s] != UNREACHABLE && durations[s] + tails[s] > tail)
+                tail = durations[s] + tails[s];
+        }
+        return tail;
+    }
+
+    private void propagate()
+    {
+        int n = durations.length;
+        if (heap == null)
+        {
+            heap = new int[n];
+            queued = new boolean[n];
+        }
+        int[] order = graph.getTopologicalOrder();
+        int[] position = graph.getTopologicalPosition();
+        int[] succOffsets = graph.getSuccessorOffsets();
+        int[] successors = graph.getSuccessors();
+        int[] predOffsets = graph.getPredecessorOffsets();
+        int[] predecessors = graph.getPredecessors();
+
+        // forward: heads of the downstream cone, in topological order
+        int size = 0;
+        for (int i = 0; i < numberOfChanges; i++)
+        {
+            int v = changes[i];
+            if (heads[v] == UNREACHABLE)
+                continue;
+            for (int e = succOffsets[v]; e < succOffsets[v + 1]; e++)
+                size = push(size, position[successors[e]]);
+        }
+        while (size > 0)
+        {
+            int w = order[heap[0]];
+            size = pop(size);
+            double head = computeHead(w);
+            if (head != heads[w])
+            {
+                heads[w] = head;
+                for (int e = succOffsets[w]; e < succOffsets[w + 1]; e++)
+                    size = push(size, position[successors[e]]);
+            }
+        }
+
+        // backward: tails of the upstream cone, in reverse topological order
+        for (int i = 0; i < numberOfChanges; i++)
+        {
+            int v = changes[i];
+            if (tails[v] == UNREACHABLE)
+                continue;
+            for (int e = predOffsets[v]; e < predOffsets[v + 1]; e++)
+                size = push(size, n - 1 - position[predecessors[e]]);
+        }
+        while (size > 0)
+        {
+            int w = order[n - 1 - heap[0]];
+            size = pop(size);
+            double tail = computeTail(w);
+            if (tail != tails[w])
+            {
+                tails[w] = tail;
+                for (int e = predOffsets[w]; e < predOffsets[w + 1]; e++)
+                    size = push(size, n - 1 - position[predecessors[e]]);
+            }
+        }
+    }
+
+    // binary min-heap of keys in [0, n)
+
+    private int push(int size, int key)
+    {
+        if (queued[key])
+            return size;
+        queued[key] = true;
+
+        int i = size;
+        while (i > 0)
+        {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] <= key)
+                break;
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = key;
+        return size + 1;
+    }
+
+    private int pop(int size)
+    {
+        queued[heap[0]] = false;
+        int last = heap[--size];
+        int i = 0;
+        while (true)
+        {
+            int child = 2 * i + 1;
+            if (child >= size)
+                break;
+            if (child + 1 < size && heap[child + 1] < heap[child])
+                child++;
+            if (heap[child] >= last)
+                break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        if (size > 0)
+            heap[i] = last;
+        return size;
+    }
+}
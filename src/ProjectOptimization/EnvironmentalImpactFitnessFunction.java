@@ -1,14 +1,13 @@
 package ProjectOptimization;
 
 import IDF.EnergySimParametricOptionReader;
-import NSGAII.FitnessFunction;
+import NSGAII.IncrementalFitnessFunction;
 import NSGAII.Individual;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
-import java.util.Map;
 
-public class EnvironmentalImpactFitnessFunction implements FitnessFunction
+public class EnvironmentalImpactFitnessFunction implements IncrementalFitnessFunction
 {
 
     @Override
@@ -25,11 +24,22 @@ public class EnvironmentalImpactFitnessFunction implements FitnessFunction
 
         IndividualProject projIndv = (IndividualProject) indv;
 
-        double EI = 0.0;
-
-        for (Map.Entry<String, Assembly> entry : projIndv.getCurrentAssemblies().entrySet())
-            EI += entry.getValue().getCo2();
+        double EI = projIndv.getTotalCo2();
 
         return EI;
     }
+
+    /**
+     * Difference of the CO2 of the old and the new alternative of a
+     * component.
+     */
+    @Override
+    public double getDelta(Individual indv, int gene, int oldAllele, int newAllele)
+    {
+        CompiledCatalog catalog = ((IndividualProject) indv).getCatalog();
+        int offset = catalog.getOffset(gene);
+        double oldValue = oldAllele < 0 ? 0 : catalog.getCo2(offset + oldAllele);
+        double newValue = newAllele < 0 ? 0 : catalog.getCo2(offset + newAllele);
+        return newValue - oldValue;
+    }
 }
@@ -2,14 +2,12 @@ package ProjectOptimization;
 
 import IDF.POption;
 import IDF.EnergySimParametricOptionReader;
-import IDF.NoEnergyResultFoundException;
 import NSGAII.FitnessFunction;
 import NSGAII.Individual;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.util.List;
-import java.util.Map;
 
 /**
  *
@@ -32,40 +30,37 @@ public class EnvironmentalImpactSMFitnessFunction implements FitnessFunction
 
         IndividualProject projIndv = (IndividualProject) indv;
 
-        double EI = 0.0;
-        StringBuilder geneSequence = projIndv.buildGeneSequence();
+        double EI = projIndv.getTotalCo2();
 
-        for (Map.Entry<String, Assembly> entry : projIndv.getCurrentAssemblies().entrySet())
-            EI += entry.getValue().getCo2();
-
-        double gasJ = 0; //TODO: Add method for gas to SimulationReader Interface
-        String gs = geneSequence.toString();
         EnergySimParametricOptionReader pReader = new EnergySimParametricOptionReader();
 
         //update EI based on simulation results
-        double electricity = - 1;
-        try
-        {
-            electricity = pReader.getSimulationElectricity(indv, gs);
-            if (electricity >= 0)
-            {
-                double electKWH = electricity;
-                double elecMWH = electKWH / 1000.0;
-                double gasTherms = gasJ * Constants.THERM_CONVERSION;
-                double elecKgYear = (elecMWH * Constants.US_AVG_CO2_LBS_PER_MWH) * Constants.KG_PER_LB;//MHW * CO2lbsCnvt * kgCvnt = CO2 in kg
-                double gasKgYear = (gasTherms * Constants.METRIC_TONS_CO2_PER_THERM) * 1000; //therms * MetricTonCnvt*kgCvnt = CO2 in kg
-
-                EI += elecKgYear + gasKgYear;
-            }
-        }
-        catch (NoEnergyResultFoundException e)
+        double electricity = pReader.findSimulationElectricity(projIndv);
+        if (Double.isNaN(electricity))
         {
             // If energy simulations are being considered(i.e. there is a known
             // engery directory), but no result is found for this individual, 
             // give it a terrible fitness so it will never be chosen.
             return Double.MAX_VALUE;
         }
+        if (electricity >= 0)
+            EI += getEnergyImpact(electricity);
 
         return EI;
     }
+
+    /**
+     * Yearly CO2 in kg of a simulated electricity consumption.
+     */
+    static double getEnergyImpact(double electricity)
+    {
+        double gasJ = 0; //TODO: Add method for gas to SimulationReader Interface
+        double electKWH = electricity;
+        double elecMWH = electKWH / 1000.0;
+        double gasTherms = gasJ * Constants.THERM_CONVERSION;
+        double elecKgYear = (elecMWH * Constants.US_AVG_CO2_LBS_PER_MWH) * Constants.KG_PER_LB;//MHW * CO2lbsCnvt * kgCvnt = CO2 in kg
+        double gasKgYear = (gasTherms * Constants.METRIC_TONS_CO2_PER_THERM) * 1000; //therms * MetricTonCnvt*kgCvnt = CO2 in kg
+
+        return elecKgYear + gasKgYear;
+    }
 }
@@ -0,0 +1,195 @@
+package ProjectOptimization;
+
+import IDF.POption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Encodes the parametric configuration of a project as a mixed-radix long.
+ * Every component is a digit whose value is the ordinal of the selected
+ * option's value among the distinct values of the component's parametric
+ * options, so two projects have the same key exactly if
+ * IndividualProject.buildGeneSequence returns the same string for them.
+ * Digits are ordered like the gene sequence (component ordinal order of the
+ * CompiledCatalog), which allows gene sequence strings (e.g. from a results
+ * file) to be parsed into keys as well.
+ *
+ * The term (digit * weight) of every alternative is precomputed per global
+ * alternative id, so encoding a genome is allocation free and
+ * O(#components). Encoders are shared by all individuals of a project.
+ */
+public class GeneKeyEncoder
+{
+
+    // encoders already created per parametric option set
+    private static final Map<Map<String, List<POption>>, GeneKeyEncoder> encoders =
+            new WeakHashMap<Map<String, List<POption>>, GeneKeyEncoder>();
+
+    private final CompiledCatalog catalog;
+    private final String[] components;
+    private final long[] weights;
+    private final long[] terms;
+    private final List<Map<String, Integer>> valueOrdinals;
+    private final long keySpace;
+
+    /**
+     * Returns the encoder of a project.
+     *
+     * @param catalog compiled catalog of the project's assemblies
+     * @param paras parametric options per component
+     * @return shared encoder or null if the parametric options cannot be
+     * encoded (no parametric options, values containing '-' or too many
+     * combinations for a long)
+     */
+    public static synchronized GeneKeyEncoder forProject(CompiledCatalog catalog, Map<String, List<POption>> paras)
+    {
+        if (paras == null)
+            return null;
+
+        GeneKeyEncoder encoder = encoders.get(paras);
+        if (encoders.containsKey(paras) && (encoder == null || encoder.catalog == catalog))
+            return encoder;
+
+        encoder = create(catalog, paras);
+        encoders.put(paras, encoder);
+        return encoder;
+    }
+
+    private static GeneKeyEncoder create(CompiledCatalog catalog, Map<String, List<POption>> paras)
+    {
+        for (int c = 0; c < catalog.getNumberOfComponents(); c++)
+        {
+            String component = catalog.getComponent(c);
+            List<POption> opts = paras.get(component);
+            if (opts == null || opts.isEmpty())
+                return null;
+            for (POption opt : opts)
+                if (opt.getValue() == null || opt.getValue().indexOf('-') >= 0)
+                    return null;
+        }
+        try
+        {
+            return new GeneKeyEncoder(catalog, paras);
+        }
+        catch (ArithmeticException e)
+        {
+            // more combinations than fit into a long
+            return null;
+        }
+    }
+
+    private GeneKeyEncoder(CompiledCatalog catalog, Map<String, List<POption>> paras)
+    {
+        this.catalog = catalog;
+        components = new String[catalog.getNumberOfComponents()];
+        valueOrdinals = new ArrayList<Map<String, Integer>>(components.length);
+        for (int c = 0; c < components.length; c++)
+        {
+            components[c] = catalog.getComponent(c);
+            Map<String, Integer> values = new HashMap<String, Integer>();
+            for (POption opt : paras.get(components[c]))
+                if (!values.containsKey(opt.getValue()))
+                    values.put(opt.getValue(), values.size());
+            valueOrdinals.add(values);
+        }
+
+        // the last component is the least significant digit
+        weights = new long[components.length];
+        long weight = 1;
+        for (int i = components.length - 1; i >= 0; i--)
+        {
+            weights[i] = weight;
+            weight = multiplyExact(weight, valueOrdinals.get(i).size());
+        }
+        keySpace = weight;
+
+        // term of the value of the first option named like the alternative
+        terms = new long[catalog.getNumberOfAlternatives()];
+        for (int c = 0; c < components.length; c++)
+        {
+            List<POption> opts = paras.get(components[c]);
+            for (int a = 0; a < catalog.getNumberOfAlternatives(c); a++)
+            {
+                int id = catalog.getOffset(c) + a;
+                terms[id] = -1;
+                for (POption opt : opts)
+                {
+                    if (opt.getName().equalsIgnoreCase(catalog.getName(id)))
+                    {
+                        terms[id] = valueOrdinals.get(c).get(opt.getValue()) * weights[c];
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private static long multiplyExact(long a, long b)
+    {
+        long result = a * b;
+        if (b != 0 && result / b != a)
+            throw new ArithmeticException("long overflow");
+        return result;
+    }
+
+    /**
+     * Number of distinct keys; all keys are in [0, getKeySpace()).
+     */
+    public long getKeySpace()
+    {
+        return keySpace;
+    }
+
+    /**
+     * Returns the key of a genome.
+     *
+     * @param genes index of the selected alternative per component ordinal
+     * of the catalog (-1 if none)
+     * @return key or -1 if a component has no assembly or no matching
+     * parametric option
+     */
+    public long encode(int[] genes)
+    {
+        long key = 0;
+        for (int c = 0; c < components.length; c++)
+        {
+            if (genes[c] < 0)
+                return -1;
+            long term = terms[catalog.getOffset(c) + genes[c]];
+            if (term < 0)
+                return -1;
+            key += term;
+        }
+        return key;
+    }
+
+    /**
+     * Parses a gene sequence string into its key.
+     *
+     * @param geneSequence option values joined by '-'
+     * @return key or -1 if the string is no valid gene sequence
+     */
+    public long parse(String geneSequence)
+    {
+        if (components.length == 0)
+            return geneSequence.isEmpty() ? 0 : -1;
+
+        long key = 0;
+        int from = 0;
+        for (int i = 0; i < components.length; i++)
+        {
+            int to = i == components.length - 1 ? geneSequence.length() : geneSequence.indexOf('-', from);
+            if (to < 0)
+                return -1;
+            Integer ordinal = valueOrdinals.get(i).get(geneSequence.substring(from, to));
+            if (ordinal == null)
+                return -1;
+            key += ordinal * weights[i];
+            from = to + 1;
+        }
+        return key;
+    }
+}
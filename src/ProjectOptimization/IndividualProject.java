@@ -1,10 +1,13 @@
 package ProjectOptimization;
 
+import IDF.EnergyResultIndex;
+import IDF.EnergyResultStore;
 import IDF.POption;
-import NSGAII.FitnessFunction;
+import NSGAII.GenomeKey;
 import NSGAII.Individual;
 import NSGAII.NSGA2;
 import java.io.File;
+import java.io.IOException;
 import java.util.*;
 
 /**
@@ -18,17 +21,28 @@ import java.util.*;
 public class IndividualProject extends Individual
 {
 
-    private double[] fitnessValues;
     private AssemblySet assemSet; //Set of components and their available options
-    private Map<String, Assembly> currentAssemblies; //Component ==> Currently selected Assembly
+    private CompiledCatalog catalog; //Component and alternative ordinals of assemSet
+    private int[] genes; //Component ordinal ==> index of the selected alternative (-1 if none)
+    private Map<String, Assembly> currentAssemblies; //Component ==> Currently selected Assembly, built on demand
     private Map<String, List<POption>> parametrics;
+    private GeneKeyEncoder geneKeyEncoder; //Encoder of the parametric configuration, null if not encodable
+    private boolean geneKeyEncoderResolved;
     private ComponentGraph currentOrder; //Graph of current Assemblies to calculate IndividualProject duration
     private ArrayList<Precedence> precedence;
+    private PrecedenceGraph precedenceGraph; //Compiled precedence, shared by all individuals
+    private CriticalPath criticalPath; //Durations of the selected Assemblies, updated incrementally
+    private int[] vertices; //Component ordinal ==> vertex of the precedence graph (-1 if none)
     private File energyResults;
+    private EnergyResultIndex energyResultIndex; //Index of energyResults, resolved once and shared by clones
+    private EnergyResultStore energyResultStore; //Mapped store of energyResults, resolved once and shared by clones
 
     public void setCurrentAssemblies(HashMap<String, Assembly> currentAssemblies)
     {
-        this.currentAssemblies = currentAssemblies;
+        genes = encodeGenes(currentAssemblies);
+        criticalPath = null;
+        genesChanged();
+        invalidateFitnessValues();
     }
 
     public IndividualProject(NSGA2 nsga)
@@ -40,52 +54,128 @@ public class IndividualProject extends Individual
     {
         super(nsga);
         assemSet = aSet;
+        catalog = aSet.getCatalog();
         precedence = order;
-        currentAssemblies = generateRandomProject();
-        currentOrder = generateComponentGraph(currentAssemblies, precedence);
-        fitnessValues = new double[nsga2.getNSGA2Configuration().getNumberOfObjectives()];
-        for (int i = 0; i < fitnessValues.length; i++)
-        {
-            fitnessValues[i] = nsga2.getNSGA2Configuration().getFitnessFunction(i).evaluate(this);
-        }
-
+        genes = generateRandomProject();
     }
 
     public IndividualProject(NSGA2 nsga, AssemblySet aSet, ArrayList<Precedence> order, Map<String, List<POption>> paras, File eRes)
     {
         super(nsga);
         assemSet = aSet;
+        catalog = aSet.getCatalog();
         precedence = order;
-        currentAssemblies = generateRandomProject();
-        currentOrder = generateComponentGraph(currentAssemblies, precedence);
+        genes = generateRandomProject();
         parametrics = paras;
         energyResults = eRes;
-        fitnessValues = new double[nsga2.getNSGA2Configuration().getNumberOfObjectives()];
-        for (int i = 0; i < fitnessValues.length; i++)
-        {
-            fitnessValues[i] = nsga2.getNSGA2Configuration().getFitnessFunction(i).evaluate(this);
-        }
+    }
 
+    /**
+     * Creates a project with the given genes, e.g. a genome received from
+     * another process (see getGenes).
+     */
+    public IndividualProject(NSGA2 nsga, AssemblySet aSet, ArrayList<Precedence> order, Map<String, List<POption>> paras, File eRes, int[] projectGenes)
+    {
+        super(nsga);
+        assemSet = aSet;
+        catalog = aSet.getCatalog();
+        precedence = order;
+        genes = checkGenes(projectGenes);
+        parametrics = paras;
+        energyResults = eRes;
     }
 
     public IndividualProject(NSGA2 nsga, AssemblySet aSet, Map<String, Assembly> currAssemblies)
     {
         super(nsga);
         assemSet = aSet;
-        currentAssemblies = currAssemblies;
-        currentOrder = generateComponentGraph(currAssemblies, precedence);
-        fitnessValues = new double[nsga2.getNSGA2Configuration().getNumberOfObjectives()];
-        for (int i = 0; i < fitnessValues.length; i++)
+        catalog = aSet.getCatalog();
+        genes = encodeGenes(currAssemblies);
+    }
+
+    /**
+     * Copy constructor used for cloning. Copies the genes and the critical
+     * path, but neither the fitness values nor the component graph.
+     */
+    private IndividualProject(IndividualProject original)
+    {
+        super(original.nsga2);
+        assemSet = original.assemSet;
+        catalog = original.catalog;
+        genes = original.genes.clone();
+        precedence = original.precedence;
+        precedenceGraph = original.precedenceGraph;
+        parametrics = original.parametrics;
+        geneKeyEncoder = original.geneKeyEncoder;
+        geneKeyEncoderResolved = original.geneKeyEncoderResolved;
+        energyResults = original.energyResults;
+        energyResultIndex = original.energyResultIndex;
+        energyResultStore = original.energyResultStore;
+
+        if (original.criticalPath != null)
         {
-            fitnessValues[i] = nsga2.getNSGA2Configuration().getFitnessFunction(i).evaluate(this);
+            criticalPath = new CriticalPath(original.criticalPath);
+            vertices = original.vertices;
         }
     }
 
+    /**
+     * Returns the selected assembly of every component. The map is built on
+     * demand in component ordinal order and must not be modified; use
+     * setCurrentAssemblies to change the assemblies.
+     */
     public Map<String, Assembly> getCurrentAssemblies()
     {
+        if (currentAssemblies == null)
+        {
+            HashMap<String, Assembly> map = new HashMap<String, Assembly>();
+            for (int c = 0; c < genes.length; c++)
+                if (genes[c] >= 0)
+                    map.put(catalog.getComponent(c), catalog.getAlternative(c, genes[c]));
+            currentAssemblies = Collections.unmodifiableMap(map);
+        }
         return currentAssemblies;
     }
 
+    public CompiledCatalog getCatalog()
+    {
+        return catalog;
+    }
+
+    /**
+     * Returns the summed cost of the selected assemblies.
+     */
+    public double getTotalCost()
+    {
+        return catalog.getTotalCost(genes);
+    }
+
+    /**
+     * Returns the summed CO2 of the selected assemblies.
+     */
+    public double getTotalCo2()
+    {
+        return catalog.getTotalCo2(genes);
+    }
+
+    /**
+     * Returns the index of the selected alternative of the component with the
+     * given ordinal, -1 if the component has no assembly.
+     */
+    public int getGene(int component)
+    {
+        return genes[component];
+    }
+
+    /**
+     * Returns a copy of the genes: the index of the selected alternative per
+     * component ordinal of the catalog (-1 if none).
+     */
+    public int[] getGenes()
+    {
+        return genes.clone();
+    }
+
     public Map<String, List<POption>> getParametrics()
     {
         return parametrics;
@@ -94,6 +184,8 @@ public class IndividualProject extends Individual
     public void setParametrics(Map<String, List<POption>> paras)
     {
         parametrics = paras;
+        geneKeyEncoderResolved = false;
+        invalidateFitnessValues();
     }
 
     public File getEnergyResults()
@@ -104,6 +196,61 @@ public class IndividualProject extends Individual
     public void setEnergyResults(File ed)
     {
         energyResults = ed;
+        energyResultIndex = null;
+        energyResultStore = null;
+        invalidateFitnessValues();
+    }
+
+    /**
+     * Returns the index of the energy results file. The index is resolved
+     * once when first needed after the file has been set and is handed on to
+     * clones, so lookups skip the file checks of EnergyResultIndex.forFile.
+     *
+     * @throws IOException if the file cannot be read
+     */
+    public EnergyResultIndex getEnergyResultIndex() throws IOException
+    {
+        if (energyResultIndex == null)
+            energyResultIndex = EnergyResultIndex.forFile(energyResults);
+        return energyResultIndex;
+    }
+
+    /**
+     * Returns the mapped store of the energy results file, resolved and
+     * handed on like the index (see getEnergyResultIndex).
+     *
+     * @throws IOException if the file cannot be mapped or is not a store
+     */
+    public EnergyResultStore getEnergyResultStore() throws IOException
+    {
+        if (energyResultStore == null)
+            energyResultStore = EnergyResultStore.forFile(energyResults);
+        return energyResultStore;
+    }
+
+    /**
+     * Returns the encoder of the parametric configuration, shared by all
+     * individuals with the same parametric options, or null if the options
+     * cannot be encoded.
+     */
+    public GeneKeyEncoder getGeneKeyEncoder()
+    {
+        if (!geneKeyEncoderResolved)
+        {
+            geneKeyEncoder = GeneKeyEncoder.forProject(catalog, parametrics);
+            geneKeyEncoderResolved = true;
+        }
+        return geneKeyEncoder;
+    }
+
+    /**
+     * Returns the mixed-radix key of the parametric configuration or -1 if it
+     * cannot be encoded.
+     */
+    public long getGeneKey()
+    {
+        GeneKeyEncoder encoder = getGeneKeyEncoder();
+        return encoder == null ? -1 : encoder.encode(genes);
     }
 
     /**
@@ -113,6 +260,7 @@ public class IndividualProject extends Individual
     public StringBuilder buildGeneSequence()
     {
         StringBuilder geneSequence = new StringBuilder();
+        Map<String, Assembly> currentAssemblies = getCurrentAssemblies();
         int count = 0;
         for (Map.Entry<String, Assembly> entry : currentAssemblies.entrySet())
         {
@@ -136,17 +284,39 @@ public class IndividualProject extends Individual
         return geneSequence;
     }
 
-    private Map<String, Assembly> generateRandomProject()
+    private int[] generateRandomProject()
+    {
+        int[] project = new int[catalog.getNumberOfComponents()];
+        SplittableRandom rand = getRandom();
+        for (int c = 0; c < project.length; c++)
+            project[c] = rand.nextInt(catalog.getNumberOfAlternatives(c));
+        return project;
+    }
+
+    private int[] checkGenes(int[] project)
+    {
+        if (project.length != catalog.getNumberOfComponents())
+            throw new IllegalArgumentException("Expected " + catalog.getNumberOfComponents() + " genes, got " + project.length);
+        for (int c = 0; c < project.length; c++)
+            if (project[c] < -1 || project[c] >= catalog.getNumberOfAlternatives(c))
+                throw new IllegalArgumentException(project[c] + " is no alternative of " + catalog.getComponent(c));
+        return project.clone();
+    }
+
+    private int[] encodeGenes(Map<String, Assembly> assems)
     {
-        HashMap<String, Assembly> map = new HashMap<String, Assembly>();
-        Random rand = new Random();
-        HashMap<String, ArrayList<Assembly>> options = assemSet.getOptionSet();
-        for (String str : options.keySet())
+        int[] project = new int[catalog.getNumberOfComponents()];
+        Arrays.fill(project, -1);
+        for (Map.Entry<String, Assembly> entry : assems.entrySet())
         {
-            ArrayList<Assembly> assems = options.get(str);
-            map.put(str, assems.get(rand.nextInt(assems.size())));
+            int c = catalog.indexOf(entry.getKey());
+            if (c < 0)
+                throw new IllegalArgumentException("Unknown component " + entry.getKey());
+            project[c] = catalog.indexOf(c, entry.getValue());
+            if (project[c] < 0)
+                throw new IllegalArgumentException(entry.getValue().getName() + " is no alternative of " + entry.getKey());
         }
-        return map;
+        return project;
     }
 
     private ComponentGraph generateComponentGraph(Map<String, Assembly> assems, ArrayList<Precedence> precs)
@@ -189,12 +359,55 @@ public class IndividualProject extends Individual
         return g;
     }
 
+    /**
+     * Returns the genes, i.e. the index of the selected alternative of every
+     * component, as key for the fitness cache.
+     */
+    @Override
+    public Object getGenomeKey()
+    {
+        if (genes == null)
+            return null;
+        return new GenomeKey(genes.clone());
+    }
+
     @Override
     protected Individual createClonedIndividual()
     {
-        Individual clone = new IndividualProject(nsga2, assemSet, precedence,
-                parametrics, energyResults);
-        return clone;
+        return new IndividualProject(this);
+    }
+
+    /**
+     * Invalidates the views derived from the genes. Must be called whenever
+     * an assembly is replaced.
+     */
+    private void genesChanged()
+    {
+        currentAssemblies = null;
+        currentOrder = null;
+    }
+
+    /**
+     * Records the change of a single gene for the incremental evaluation and
+     * the critical path.
+     */
+    private void geneChanged(int component, int oldAlternative)
+    {
+        recordGeneChange(component, oldAlternative, genes[component]);
+        updateDuration(component);
+    }
+
+    /**
+     * Sets the duration of a single component in the critical path.
+     */
+    private void updateDuration(int component)
+    {
+        if (criticalPath == null || vertices[component] < 0)
+            return;
+
+        int alternative = genes[component];
+        criticalPath.setDuration(vertices[component],
+                alternative < 0 ? 0 : catalog.getDuration(catalog.getOffset(component) + alternative));
     }
 
     @Override
@@ -208,21 +421,24 @@ public class IndividualProject extends Individual
     protected void mutate()
     {
         boolean mutated = false;
-        Random rand = new Random();
+        SplittableRandom rand = getRandom();
 
-        for (Map.Entry<String, Assembly> entry : currentAssemblies.entrySet())
+        for (int c = 0; c < genes.length; c++)
         {
+            if (genes[c] < 0)
+                continue;
             if (rand.nextDouble() <= nsga2.getNSGA2Configuration().getMutationProbability())
             {
-                Assembly toReplace = entry.getValue();
-                ArrayList<Assembly> options = assemSet.getOptionSet().get(entry.getKey());
+                int options = catalog.getNumberOfAlternatives(c);
 
-                if (options.size() <= 1)
+                if (options <= 1)
                     break;
-                Assembly replacement = options.get(rand.nextInt(options.size()));
-                while (toReplace.equals(replacement))
-                    replacement = options.get(rand.nextInt(options.size()));
-                entry.setValue(replacement);
+                int replacement = rand.nextInt(options);
+                while (replacement == genes[c])
+                    replacement = rand.nextInt(options);
+                int replaced = genes[c];
+                genes[c] = replacement;
+                geneChanged(c, replaced);
 
                 //System.out.printf("Name: %s - Category: %s\n", replacement.getName(), replacement.getCategory());
 
@@ -230,13 +446,7 @@ public class IndividualProject extends Individual
             }
         }
         if (mutated)
-        {
-            // update fitness values
-            for (int i = 0; i < fitnessValues.length; i++)
-            {
-                fitnessValues[i] = nsga2.getNSGA2Configuration().getFitnessFunction(i).evaluate(this);
-            }
-        }
+            genesChanged();
     }
 
     @Override
@@ -264,58 +474,96 @@ public class IndividualProject extends Individual
             throw new IllegalArgumentException("Both individuals must belong to the same NSGA-II instance.");
         }
 
-        Random rand = new Random();
+        SplittableRandom rand = getRandom();
         if (rand.nextDouble() < nsga2.getNSGA2Configuration().getCrossoverProbability())
         {
             // crossover in front of 'randomIndex'
-            int randomIndex = rand.nextInt(currentAssemblies.size());
-            int currIndex = 0;
-            for (Map.Entry<String, Assembly> entry : currentAssemblies.entrySet())
+            int randomIndex = rand.nextInt(genes.length);
+            if (randomIndex > 0)
             {
-                if (currIndex >= randomIndex)
-                    break;
-
-                //Swap
-                Assembly toSwap = entry.getValue();
-                entry.setValue(otherProj.getCurrentAssemblies().get(entry.getKey()));
+                for (int c = 0; c < randomIndex; c++)
+                {
+                    //Swap
+                    int toSwap = genes[c];
+                    genes[c] = otherProj.genes[c];
+                    otherProj.genes[c] = toSwap;
+                    if (genes[c] != toSwap)
+                    {
+                        geneChanged(c, toSwap);
+                        otherProj.geneChanged(c, genes[c]);
+                    }
+                }
 
-                otherProj.getCurrentAssemblies().put(entry.getKey(), toSwap);
-                currIndex++;
+                genesChanged();
+                otherProj.genesChanged();
             }
+        }
+    }
 
+    /**
+     * Returns the graph of the current assemblies. The graph is built on
+     * demand after the assemblies have changed.
+     */
+    public ComponentGraph getCurrentOrder()
+    {
+        if (currentOrder == null)
+            currentOrder = generateComponentGraph(getCurrentAssemblies(), precedence);
+        return currentOrder;
+    }
 
-            //update fitness values
-            for (int i = 0; i < fitnessValues.length; i++)
+    /**
+     * Returns the compiled precedence graph. The graph is compiled once per
+     * precedence list and shared by all individuals using that list.
+     */
+    public PrecedenceGraph getPrecedenceGraph()
+    {
+        if (precedenceGraph == null)
+            precedenceGraph = PrecedenceGraph.forOrder(precedence);
+        return precedenceGraph;
+    }
+
+    /**
+     * Returns the critical path of the current assemblies. It is built on
+     * first use and afterwards updated incrementally by mutate and crossover.
+     */
+    public CriticalPath getCriticalPath()
+    {
+        if (criticalPath == null)
+        {
+            PrecedenceGraph graph = getPrecedenceGraph();
+            criticalPath = new CriticalPath(graph);
+            vertices = new int[genes.length];
+            for (int c = 0; c < genes.length; c++)
             {
-                FitnessFunction fitnessFunction = nsga2.getNSGA2Configuration().getFitnessFunction(i);
-                fitnessValues[i] = fitnessFunction.evaluate(this);
-                otherProj.fitnessValues[i] = fitnessFunction.evaluate(otherProj);
+                vertices[c] = graph.indexOf(catalog.getComponent(c));
+                if (genes[c] >= 0)
+                    updateDuration(c);
             }
         }
+        return criticalPath;
     }
 
-    public ComponentGraph getCurrentOrder()
+    /**
+     * Returns the project duration of the current assemblies, i.e. the
+     * longest path through the compiled precedence graph.
+     */
+    public double getProjectDuration()
     {
-        return currentOrder;
+        return getCriticalPath().getProjectDuration();
     }
 
     private void printIndividual()
     {
+        Map<String, Assembly> currentAssemblies = getCurrentAssemblies();
         System.out.printf("Number of Components: %s\n\n", currentAssemblies.size());
         for (Map.Entry<String, Assembly> entry : currentAssemblies.entrySet())
             System.out.println(entry.getKey() + " ==> " + entry.getValue().toString());
 
-        System.out.println("\nEstimated Project Cost: " + this.fitnessValues[0]);
-        System.out.println("Estimated Project EI: " + this.fitnessValues[1]);
-        System.out.println("Estimated Project Duration: " + this.fitnessValues[2]);
+        System.out.println("\nEstimated Project Cost: " + getFitnessValue(0));
+        System.out.println("Estimated Project EI: " + getFitnessValue(1));
+        System.out.println("Estimated Project Duration: " + getFitnessValue(2));
 
         System.out.println();
         this.getCurrentOrder().printPath("END");
     }
-
-    @Override
-    public double getFitnessValue(int index) throws IndexOutOfBoundsException
-    {
-        return fitnessValues[index];
-    }
 }
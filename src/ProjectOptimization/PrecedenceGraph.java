@@ -0,0 +1,204 @@
+package ProjectOptimization;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Immutable, int-indexed precedence graph compiled from the output of
+ * ComponentOrderReader. Every component is a vertex, plus the START and END
+ * vertices. Adjacency is stored in compressed sparse row (CSR) form and the
+ * topological order is computed once. CriticalPath uses the graph to keep
+ * the project duration (the longest path from START to END) of an individual
+ * up to date.
+ *
+ * Edge semantics are the same as in IndividualProject's ComponentGraph: an
+ * edge from a component to its successor costs the duration of the component,
+ * edges leaving START cost nothing.
+ */
+public class PrecedenceGraph
+{
+
+    public static final int START = 0;
+    public static final int END = 1;
+
+    // graphs already compiled for a precedence list
+    private static final Map<List<Precedence>, PrecedenceGraph> compiled =
+            new WeakHashMap<List<Precedence>, PrecedenceGraph>();
+
+    private final String[] names;
+    private final Map<String, Integer> ids;
+    private final int[] successorOffsets;
+    private final int[] successors;
+    private final int[] predecessorOffsets;
+    private final int[] predecessors;
+    private final int[] topologicalOrder;
+    private final int[] topologicalPosition;
+
+    /**
+     * Returns the compiled graph of the given precedence list. The graph is
+     * compiled only once and shared by all callers using the same list.
+     */
+    public static synchronized PrecedenceGraph forOrder(List<Precedence> order)
+    {
+        PrecedenceGraph graph = compiled.get(order);
+        if (graph == null)
+        {
+            graph = new PrecedenceGraph(order);
+            compiled.put(order, graph);
+        }
+        return graph;
+    }
+
+    public PrecedenceGraph(List<Precedence> order)
+    {
+        if (order == null)
+            throw new IllegalArgumentException("'order' must not be null.");
+
+        ids = new HashMap<String, Integer>();
+        List<String> vertexNames = new ArrayList<String>();
+        vertexNames.add(Assembly.START.getName());
+        vertexNames.add(Assembly.END.getName());
+
+        // collect distinct edges
+        List<int[]> edges = new ArrayList<int[]>();
+        Set<Long> seen = new HashSet<Long>();
+        for (Precedence p : order)
+        {
+            int comp = vertex(p.getAssemName(), vertexNames);
+            int pred = vertex(p.getPredecessor(), vertexNames);
+            int succ = vertex(p.getSuccessor(), vertexNames);
+            addEdge(pred, comp, edges, seen);
+            addEdge(comp, succ, edges, seen);
+        }
+
+        int n = vertexNames.size();
+        names = vertexNames.toArray(new String[n]);
+
+        successorOffsets = new int[n + 1];
+        predecessorOffsets = new int[n + 1];
+        for (int[] e : edges)
+        {
+            successorOffsets[e[0] + 1]++;
+            predecessorOffsets[e[1] + 1]++;
+        }
+        for (int v = 0; v < n; v++)
+        {
+            successorOffsets[v + 1] += successorOffsets[v];
+            predecessorOffsets[v + 1] += predecessorOffsets[v];
+        }
+        successors = new int[edges.size()];
+        predecessors = new int[edges.size()];
+        int[] nextSucc = new int[n];
+        int[] nextPred = new int[n];
+        for (int[] e : edges)
+        {
+            successors[successorOffsets[e[0]] + nextSucc[e[0]]++] = e[1];
+            predecessors[predecessorOffsets[e[1]] + nextPred[e[1]]++] = e[0];
+        }
+
+        // Kahn's algorithm
+        topologicalOrder = new int[n];
+        topologicalPosition = new int[n];
+        int[] indegree = new int[n];
+        for (int v = 0; v < n; v++)
+            indegree[v] = predecessorOffsets[v + 1] - predecessorOffsets[v];
+        int head = 0;
+        int tail = 0;
+        for (int v = 0; v < n; v++)
+            if (indegree[v] == 0)
+                topologicalOrder[tail++] = v;
+        while (head < tail)
+        {
+            int v = topologicalOrder[head++];
+            for (int i = successorOffsets[v]; i < successorOffsets[v + 1]; i++)
+                if (--indegree[successors[i]] == 0)
+                    topologicalOrder[tail++] = successors[i];
+        }
+        if (tail != n)
+            throw new IllegalStateException("Graph has a cycle!");
+        for (int i = 0; i < n; i++)
+            topologicalPosition[topologicalOrder[i]] = i;
+    }
+
+    private int vertex(String name, List<String> vertexNames)
+    {
+        String trimmed = name.trim();
+        if (trimmed.equalsIgnoreCase(Assembly.START.getName()))
+            return START;
+        if (trimmed.equalsIgnoreCase(Assembly.END.getName()))
+            return END;
+
+        Integer id = ids.get(name);
+        if (id == null)
+        {
+            id = vertexNames.size();
+            vertexNames.add(name);
+            ids.put(name, id);
+        }
+        return id;
+    }
+
+    private static void addEdge(int from, int to, List<int[]> edges, Set<Long> seen)
+    {
+        if (seen.add(((long) from << 32) | to))
+            edges.add(new int[] { from, to });
+    }
+
+    /**
+     * Number of vertices including START and END.
+     */
+    public int size()
+    {
+        return names.length;
+    }
+
+    /**
+     * Returns the vertex id of a component or -1 if the component is not
+     * part of the graph.
+     */
+    public int indexOf(String component)
+    {
+        Integer id = ids.get(component);
+        return id == null ? -1 : id;
+    }
+
+    public String getName(int vertex)
+    {
+        return names[vertex];
+    }
+
+    int[] getSuccessorOffsets()
+    {
+        return successorOffsets;
+    }
+
+    int[] getSuccessors()
+    {
+        return successors;
+    }
+
+    int[] getPredecessorOffsets()
+    {
+        return predecessorOffsets;
+    }
+
+    int[] getPredecessors()
+    {
+        return predecessors;
+    }
+
+    int[] getTopologicalOrder()
+    {
+        return topologicalOrder;
+    }
+
+    int[] getTopologicalPosition()
+    {
+        return topologicalPosition;
+    }
+}
@@ -0,0 +1,91 @@
+package ProjectOptimization;
+
+import IDF.EnergySimParametricOptionReader;
+import NSGAII.Individual;
+import NSGAII.MultiObjectiveEvaluator;
+
+/**
+ * Evaluates the three objectives of a project (cost, environmental impact and
+ * duration) in one pass. The simulated electricity, which both the cost and
+ * the environmental impact depend on, is looked up only once per individual.
+ *
+ * Computes the same values as the fitness functions ProjectTest configures:
+ * CostESFitnessFunction, EnvironmentalImpactSMFitnessFunction and
+ * ProjectTimeFitnessFunction if there are energy results, otherwise
+ * CostFitnessFunction, EnvironmentalImpactFitnessFunction and
+ * ProjectTimeFitnessFunction.
+ */
+public class ProjectEvaluator implements MultiObjectiveEvaluator
+{
+
+    public static final int COST = 0;
+    public static final int ENVIRONMENTAL_IMPACT = 1;
+    public static final int DURATION = 2;
+
+    private final boolean energySimulations;
+
+    /**
+     * Constructor.
+     *
+     * @param energySimulations whether cost and environmental impact include
+     * the energy simulation results of the individuals
+     */
+    public ProjectEvaluator(boolean energySimulations)
+    {
+        this.energySimulations = energySimulations;
+    }
+
+    @Override
+    public void evaluate(Individual indv, double[] fitnessValues, boolean[] stale)
+    {
+        if (indv == null)
+        {
+            throw new IllegalArgumentException("Individual must not be null.");
+        }
+        if (!(indv instanceof IndividualProject))
+        {
+            throw new IllegalArgumentException("Individual must be of type IndividualProject.");
+        }
+
+        IndividualProject projIndv = (IndividualProject) indv;
+        boolean cost = stale == null || stale[COST];
+        boolean environmentalImpact = stale == null || stale[ENVIRONMENTAL_IMPACT];
+
+        double electricity = -1;
+        if (energySimulations && (environmentalImpact || cost && projIndv.getEnergyResults() != null))
+        {
+            EnergySimParametricOptionReader pReader = new EnergySimParametricOptionReader();
+            electricity = pReader.findSimulationElectricity(projIndv);
+        }
+
+        if (cost)
+        {
+            double value = projIndv.getTotalCost();
+            if (energySimulations && projIndv.getEnergyResults() != null)
+                value = addEnergy(value, electricity, CostESFitnessFunction.getEnergyCost(electricity));
+            fitnessValues[COST] = value;
+        }
+        if (environmentalImpact)
+        {
+            double value = projIndv.getTotalCo2();
+            if (energySimulations)
+                value = addEnergy(value, electricity, EnvironmentalImpactSMFitnessFunction.getEnergyImpact(electricity));
+            fitnessValues[ENVIRONMENTAL_IMPACT] = value;
+        }
+        if (stale == null || stale[DURATION])
+        {
+            fitnessValues[DURATION] = projIndv.getProjectDuration();
+        }
+    }
+
+    private static double addEnergy(double value, double electricity, double energyValue)
+    {
+        // no result for this individual, give it a terrible fitness so it
+        // will never be chosen
+        if (Double.isNaN(electricity))
+            return Double.MAX_VALUE;
+        if (electricity >= 0)
+            return value + energyValue;
+        return value;
+    }
+}
@@ -0,0 +1,49 @@
+package ProjectOptimization;
+
+import IDF.POption;
+import NSGAII.GenomeCodec;
+import NSGAII.Individual;
+import NSGAII.NSGA2;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends projects to remote workers as their genes (the index of the selected
+ * alternative per component ordinal). Coordinator and workers must load the
+ * same components, precedence, parametric options and energy results, so
+ * the ordinals mean the same alternatives on both sides.
+ */
+public class ProjectGenomeCodec implements GenomeCodec
+{
+
+    private final AssemblySet assemSet;
+    private final ArrayList<Precedence> order;
+    private final Map<String, List<POption>> parametrics;
+    private final File energyResults;
+
+    public ProjectGenomeCodec(AssemblySet aSet, ArrayList<Precedence> order, Map<String, List<POption>> paras, File eRes)
+    {
+        assemSet = aSet;
+        this.order = order;
+        parametrics = paras;
+        energyResults = eRes;
+    }
+
+    @Override
+    public int[] encode(Individual individual)
+    {
+        if (!(individual instanceof IndividualProject))
+        {
+            throw new IllegalArgumentException("Individual must be of type IndividualProject.");
+        }
+        return ((IndividualProject) individual).getGenes();
+    }
+
+    @Override
+    public Individual decode(NSGA2 nsga2, int[] genome)
+    {
+        return new IndividualProject(nsga2, assemSet, order, parametrics, energyResults, genome);
+    }
+}
@@ -4,6 +4,7 @@ import IDF.POption;
 import IDF.EnergySimParametricOptionReader;
 import NSGAII.*;
 import java.io.File;
+import java.io.IOException;
 import java.text.DateFormat;
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
@@ -34,6 +35,12 @@ public class ProjectTest
     private static int POPULATION_SIZE = 200;
     private static int NUMBER_OF_GENERATIONS = 200;
     private static final double DIFFERENCE_THRESHOLD = .05;
+    private static final int FITNESS_CACHE_SIZE = 100000; // genomes whose fitness values are kept
+    private static final int WORKER_CHUNK_SIZE = 16; // projects sent to a worker in one message
+    private static final int WORKER_PIPELINE_DEPTH = 2; // messages a worker gets at a time
+    private static final int WORKER_ANSWER_TIMEOUT = 60000; // ms until a silent worker's messages go to others
+    private static final String SEED_PROPERTY = "seed"; // -Dseed=<n> replays a run
+    private static final String OFFSPRING_SIZE_PROPERTY = "offspringSize"; // -DoffspringSize=<n> sets lambda
 
     /**
      * Main method
@@ -48,6 +55,7 @@ public class ProjectTest
         compFile = orderFile = poFile = "";
         File eResults = null;
         File resultsDir = null;
+        int workerPort = -1; // evaluate on ProjectWorker processes connecting to this port
         //===============DEBUGGING MODES===========//
         DebugMode dbgMode = DebugMode.COMMAND;
         DisplayMode disMode = DisplayMode.NO_DISPLAY;
@@ -75,7 +83,12 @@ public class ProjectTest
                 {
                     System.err.println("Missing input. Try: "
                             + "<program> <components file> <precedence file> "
-                            + "<output directory>");
+                            + "<output directory> [<population> <generations> "
+                            + "[<parametric options file> <energy results file> "
+                            + "[<worker port>]]] "
+                            + "(-D" + SEED_PROPERTY + "=<random seed> replays a run, "
+                            + "-D" + OFFSPRING_SIZE_PROPERTY + "=<offspring> per generation, "
+                            + "default population)");
                     System.exit(-1);
                 }
                 compFile = args[0];
@@ -87,12 +100,6 @@ public class ProjectTest
                 {
                     POPULATION_SIZE = Integer.parseInt(args[3]);
                     NUMBER_OF_GENERATIONS = Integer.parseInt(args[4]);
-
-                    if (POPULATION_SIZE % 4 != 0)
-                    {
-                        System.err.println("Population size must be divisible by 4.");
-                        System.exit(-1);
-                    }
                 }
                 if (args.length < 7)
                     System.err.println("No Parametric Options file and "
@@ -103,6 +110,8 @@ public class ProjectTest
                     poFile = args[5];
                     eResults = new File(args[6]);
                 }
+                if (args.length >= 8)
+                    workerPort = Integer.parseInt(args[7]);
                 break;
             }
             default:
@@ -129,6 +138,15 @@ public class ProjectTest
                 DIFFERENCE_THRESHOLD,
                 POPULATION_SIZE,
                 NUMBER_OF_GENERATIONS);
+        conf.setEvaluationParallelism(Runtime.getRuntime().availableProcessors());
+        conf.setFitnessCache(new FitnessCache(FITNESS_CACHE_SIZE));
+        conf.setMultiObjectiveEvaluator(new ProjectEvaluator(eResults != null));
+        Long seed = Long.getLong(SEED_PROPERTY);
+        if (seed != null)
+            conf.setRandomStreams(new RandomStreams(seed));
+        Integer offspringSize = Integer.getInteger(OFFSPRING_SIZE_PROPERTY);
+        if (offspringSize != null)
+            conf.setOffspringSize(offspringSize);
         NSGA2 nsga2 = new NSGA2(conf);
         nsga2.addNSGA2Listener(new ProjectNSGA2Listener());
 
@@ -148,16 +166,41 @@ public class ProjectTest
             startPopulation.add(indv);
         }
 
+        RemoteEvaluator remote = null;
+        if (workerPort >= 0)
+        {
+            try
+            {
+                remote = new RemoteEvaluator(workerPort,
+                        new ProjectGenomeCodec(assemSet, order, parametrics, eResults),
+                        WORKER_CHUNK_SIZE, WORKER_PIPELINE_DEPTH, WORKER_ANSWER_TIMEOUT);
+            }
+            catch (IOException e)
+            {
+                System.err.println("Cannot listen for workers on port " + workerPort + ": " + e.getMessage());
+                System.exit(-1);
+            }
+            conf.setBatchEvaluator(remote);
+            System.out.println("Waiting for workers on port " + remote.getPort());
+        }
+
 
         System.out.println("Simulation Info");
         System.out.println("===============");
         System.out.printf("Population Siz :%d\n"
                 + "# of Generations: %d\n"
+                + "Offspring per generation: %d\n"
                 + "Mutation probability: %.2f\n"
-                + "Crossover probability: %.2f\n", POPULATION_SIZE, NUMBER_OF_GENERATIONS,
-                MUTATION_PROBABILITY, CROSSOVER_PROBABILITY);
+                + "Crossover probability: %.2f\n"
+                + "Random seed: %d\n", POPULATION_SIZE, NUMBER_OF_GENERATIONS, conf.getOffspringSize(),
+                MUTATION_PROBABILITY, CROSSOVER_PROBABILITY, conf.getRandomStreams().getSeed());
         // start evolution
         LinkedList<Individual> bestIndividuals = nsga2.evolve(startPopulation);
+        if (remote != null)
+            remote.close();
+        FitnessCache cache = conf.getFitnessCache();
+        System.out.printf("Fitness cache: %d hits, %d misses (%.1f%%)\n", cache.getHits(), cache.getMisses(),
+                cache.getHitRate() * 100);
 
         LinkedList<IndividualProject> bestProjects = new LinkedList<IndividualProject>();
         for (Individual individual : bestIndividuals)
@@ -24,12 +24,6 @@ public class ProjectTimeFitnessFunction implements FitnessFunction
 
         IndividualProject projIndv = (IndividualProject) individual;
 
-        double duration = 0.0;
-
-        projIndv.getCurrentOrder().negateEdges();
-        projIndv.getCurrentOrder().negative(Assembly.START.getName());
-        duration = projIndv.getCurrentOrder().getTotalCostAbs(Assembly.END.getName());
-
-        return duration;
+        return projIndv.getProjectDuration();
     }
 }
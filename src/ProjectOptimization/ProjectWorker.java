@@ -0,0 +1,62 @@
+package ProjectOptimization;
+
+import IDF.EnergySimParametricOptionReader;
+import IDF.POption;
+import NSGAII.EvaluationWorker;
+import NSGAII.FitnessCache;
+import NSGAII.FitnessFunction;
+import NSGAII.NSGA2;
+import NSGAII.NSGA2Configuration;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Worker process evaluating projects for a ProjectTest run started with a
+ * worker port. It must be given the same input files as the coordinator.
+ */
+public class ProjectWorker
+{
+
+    private static final int FITNESS_CACHE_SIZE = 100000; // genomes whose fitness values are kept
+
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length != 4 && args.length != 6)
+        {
+            System.err.println("Missing input. Try: "
+                    + "<program> <coordinator host> <coordinator port> "
+                    + "<components file> <precedence file> "
+                    + "[<parametric options file> <energy results file>]");
+            System.exit(-1);
+        }
+        String host = args[0];
+        int port = Integer.parseInt(args[1]);
+        AssemblySet assemSet = new AssemblySet(args[2]);
+        ArrayList<Precedence> order = ComponentOrderReader.ReadXml(args[3]);
+        Map<String, List<POption>> parametrics = null;
+        File eResults = null;
+        if (args.length == 6)
+        {
+            parametrics = EnergySimParametricOptionReader.readParametricOptions(args[4]);
+            eResults = new File(args[5]);
+        }
+
+        FitnessFunction[] fitnessFunctions = new FitnessFunction[3];
+        fitnessFunctions[0] = eResults == null ? new CostFitnessFunction() : new CostESFitnessFunction();
+        fitnessFunctions[1] = eResults == null ? new EnvironmentalImpactFitnessFunction() : new EnvironmentalImpactSMFitnessFunction();
+        fitnessFunctions[2] = new ProjectTimeFitnessFunction();
+
+        // only the evaluation settings of the configuration are used
+        NSGA2Configuration conf = new NSGA2Configuration(fitnessFunctions, 0, 0, 0, 4, 1);
+        conf.setEvaluationParallelism(Runtime.getRuntime().availableProcessors());
+        conf.setFitnessCache(new FitnessCache(FITNESS_CACHE_SIZE));
+        conf.setMultiObjectiveEvaluator(new ProjectEvaluator(eResults != null));
+
+        ProjectGenomeCodec codec = new ProjectGenomeCodec(assemSet, order, parametrics, eResults);
+        System.out.println("Connecting to " + host + ":" + port);
+        new EvaluationWorker(new NSGA2(conf), codec).run(host, port);
+    }
+}